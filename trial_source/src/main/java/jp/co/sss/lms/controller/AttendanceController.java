@@ -1,20 +1,43 @@
 package jp.co.sss.lms.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
+import jp.co.sss.lms.dto.AttendanceBulkRegistDto;
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.AttendanceRosterDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.form.AttendanceForm;
 import jp.co.sss.lms.service.StudentAttendanceService;
+import jp.co.sss.lms.service.SubsidyService;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
 
 /**
  * 勤怠管理コントローラ
@@ -28,7 +51,13 @@ public class AttendanceController {
 	@Autowired
 	private StudentAttendanceService studentAttendanceService;
 	@Autowired
+	private SubsidyService subsidyService;
+	@Autowired
 	private LoginUserDto loginUserDto;
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
 
 	/**
 	 * 勤怠管理画面 初期表示
@@ -49,10 +78,132 @@ public class AttendanceController {
 		//task25 
 		//未入力件数を取得
 		model.addAttribute("hasNotEnterCount",  studentAttendanceService.getNotEnterCount(loginUserDto.getLmsUserId()));
+		// 今月の勤怠集計
+		model.addAttribute("attendanceSummary", studentAttendanceService
+				.getAttendanceSummary(loginUserDto.getLmsUserId(), new Date()));
 
 		return "attendance/detail";
 	}
 
+	/**
+	 * コース勤怠一覧画面 初期表示
+	 * 
+	 * @param courseId      コースID（未指定の場合はログインユーザーのコース）
+	 * @param lastLmsUserId 前ページ最後のLMSユーザーID
+	 * @param model
+	 * @return コース勤怠一覧画面
+	 */
+	@RequestMapping(path = "/list", method = RequestMethod.GET)
+	public String list(@RequestParam(required = false) Integer courseId,
+			@RequestParam(required = false) Integer lastLmsUserId, Model model) {
+
+		if (courseId == null) {
+			courseId = loginUserDto.getCourseId();
+		}
+		// 企業担当者は自社の受講生のみ
+		Integer companyId = loginUserUtil.isCompany() ? loginUserDto.getCompanyId() : null;
+		// コース勤怠一覧の取得
+		List<AttendanceRosterDto> attendanceRosterDtoList = studentAttendanceService
+				.getAttendanceRoster(courseId, companyId, lastLmsUserId);
+		model.addAttribute("courseId", courseId);
+		model.addAttribute("attendanceRosterDtoList", attendanceRosterDtoList);
+		// 今月の勤怠集計（受講生ごと）
+		model.addAttribute("attendanceSummaryMap",
+				studentAttendanceService.getCourseAttendanceSummary(courseId, new Date()));
+		// 次ページ
+		if (studentAttendanceService.hasNextAttendanceRoster(attendanceRosterDtoList)) {
+			model.addAttribute("nextLmsUserId",
+					attendanceRosterDtoList.get(attendanceRosterDtoList.size() - 1).getLmsUserId());
+		}
+
+		return "attendance/list";
+	}
+
+	/**
+	 * コース勤怠一覧画面 『助成金申請書類ダウンロード』ボタン押下<br>
+	 * 作成はバックグラウンドで行い、完了後に一時ファイルを返却して削除する。
+	 * 
+	 * @param companyId   企業ID（企業担当者の場合は自社）
+	 * @param targetMonth 対象月
+	 * @return 助成金申請書類のZIPファイル
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/subsidy/download", method = RequestMethod.POST)
+	public CompletableFuture<ResponseEntity<Resource>> subsidyDownload(
+			@RequestParam(required = false) Integer companyId,
+			@RequestParam @DateTimeFormat(pattern = "yyyy-MM") Date targetMonth) throws IOException {
+
+		if (loginUserUtil.isCompany()) {
+			companyId = loginUserDto.getCompanyId();
+		}
+		if (companyId == null) {
+			return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+		}
+		ContentDisposition contentDisposition = ContentDisposition.attachment()
+				.filename("助成金申請書類_" + new SimpleDateFormat("yyyyMM").format(targetMonth)
+						+ ".zip", StandardCharsets.UTF_8)
+				.build();
+		return subsidyService.createSubsidyZip(companyId, targetMonth).thenApply(file -> {
+			try {
+				long contentLength = file.length();
+				// 返却し終えた時点で一時ファイルを削除する
+				InputStream in = Files.newInputStream(file.toPath(),
+						StandardOpenOption.DELETE_ON_CLOSE);
+				return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM)
+						.contentLength(contentLength)
+						.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+						.<Resource>body(new InputStreamResource(in));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * 勤怠一括登録画面 初期表示
+	 * 
+	 * @param courseId コースID（未指定の場合はログインユーザーのコース）
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	@RequestMapping(path = "/bulkRegist", method = RequestMethod.GET)
+	public String bulkRegist(@RequestParam(required = false) Integer courseId, Model model) {
+
+		model.addAttribute("courseId", courseId == null ? loginUserDto.getCourseId() : courseId);
+
+		return "attendance/bulkRegist";
+	}
+
+	/**
+	 * 勤怠一括登録画面 『登録』ボタン押下
+	 * 
+	 * @param courseId コースID（未指定の場合はログインユーザーのコース）
+	 * @param file     取込ファイル（.xlsx/.csv）
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/bulkRegist", method = RequestMethod.POST)
+	public String bulkRegistComplete(@RequestParam(required = false) Integer courseId,
+			@RequestParam("file") MultipartFile file, Model model) throws IOException {
+
+		if (courseId == null) {
+			courseId = loginUserDto.getCourseId();
+		}
+		// 一括登録
+		AttendanceBulkRegistDto attendanceBulkRegistDto = studentAttendanceService
+				.bulkRegist(courseId, file);
+		model.addAttribute("courseId", courseId);
+		model.addAttribute("errorList", attendanceBulkRegistDto.getErrorList());
+		model.addAttribute("message", messageUtil.getMessage(
+				Constants.PROP_KEY_ATTENDANCE_BULKREGIST_NOTICE,
+				new String[] { String.valueOf(attendanceBulkRegistDto.getTotalCount()),
+						String.valueOf(attendanceBulkRegistDto.getRegistCount()),
+						String.valueOf(attendanceBulkRegistDto.getElapsedMillis()) }));
+
+		return "attendance/bulkRegist";
+	}
+
 	/**
 	 * 勤怠管理画面 『出勤』ボタン押下
 	 * 
@@ -64,11 +215,14 @@ public class AttendanceController {
 
 		// 更新前のチェック
 		String error = studentAttendanceService.punchCheck(Constants.CODE_VAL_ATWORK);
+		// 勤怠登録（登録状況のチェックを含む）
+		if (error == null) {
+			error = studentAttendanceService.setPunchIn();
+		}
 		model.addAttribute("error", error);
-		// 勤怠登録
 		if (error == null) {
-			String message = studentAttendanceService.setPunchIn();
-			model.addAttribute("message", message);
+			model.addAttribute("message",
+					messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE));
 		}
 		// 一覧の再取得
 		List<AttendanceManagementDto> attendanceManagementDtoList = studentAttendanceService
@@ -89,11 +243,14 @@ public class AttendanceController {
 
 		// 更新前のチェック
 		String error = studentAttendanceService.punchCheck(Constants.CODE_VAL_LEAVING);
+		// 勤怠登録（登録状況のチェックを含む）
+		if (error == null) {
+			error = studentAttendanceService.setPunchOut();
+		}
 		model.addAttribute("error", error);
-		// 勤怠登録
 		if (error == null) {
-			String message = studentAttendanceService.setPunchOut();
-			model.addAttribute("message", message);
+			model.addAttribute("message",
+					messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE));
 		}
 		// 一覧の再取得
 		List<AttendanceManagementDto> attendanceManagementDtoList = studentAttendanceService
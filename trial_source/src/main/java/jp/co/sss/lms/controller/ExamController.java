@@ -1,6 +1,7 @@
 package jp.co.sss.lms.controller;
 
 import java.util.Date;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,12 +9,23 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import jp.co.sss.lms.dto.ExamAutosaveDto;
 import jp.co.sss.lms.dto.ExamDetailDto;
+import jp.co.sss.lms.dto.ExamItemAnalysisDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamResultListDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.form.ExamResultSearchForm;
+import jp.co.sss.lms.service.ExamItemAnalysisService;
 import jp.co.sss.lms.service.ExamService;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import net.arnx.jsonic.JSON;
 
 /**
  * 試験コントローラー
@@ -27,7 +39,13 @@ public class ExamController {
 	@Autowired
 	private ExamService examService;
 	@Autowired
+	private ExamItemAnalysisService examItemAnalysisService;
+	@Autowired
 	private LoginUserDto loginUserDto;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
+	@Autowired
+	private MessageUtil messageUtil;
 
 	/**
 	 * 試験詳細画面 初期表示
@@ -97,6 +115,25 @@ public class ExamController {
 		return "exam/question";
 	}
 
+	/**
+	 * 試験問題画面 回答選択時の自動保存
+	 * 
+	 * @param examSectionId
+	 * @param index         問題の添字
+	 * @param reply         回答
+	 * @return 保存結果・経過時間（JSON）
+	 */
+	@RequestMapping(path = "/autosave", method = RequestMethod.POST)
+	@ResponseBody
+	public String autosave(Integer examSectionId, Integer index, Short reply) {
+
+		// 受験中試験へ回答を保存
+		ExamAutosaveDto examAutosaveDto = examService.saveAnswer(examSectionId, index, reply);
+
+		// JSON形式で返す
+		return JSON.encode(examAutosaveDto);
+	}
+
 	/**
 	 * 試験問題画面 『確認画面へ進む』ボタン押下
 	 * 
@@ -133,4 +170,77 @@ public class ExamController {
 		return "exam/result";
 	}
 
+	/**
+	 * 試験問題分析画面 初期表示
+	 * 
+	 * @param examSectionId
+	 * @param model
+	 * @return 試験問題分析画面
+	 */
+	@RequestMapping(path = "/itemAnalysis", method = RequestMethod.GET)
+	public String itemAnalysis(@RequestParam Integer examSectionId, Model model) {
+
+		// 試験問題分析DTOリストの取得
+		List<ExamItemAnalysisDto> examItemAnalysisDtoList = examItemAnalysisService
+				.getExamItemAnalysis(examSectionId);
+		model.addAttribute("examSectionId", examSectionId);
+		model.addAttribute("examItemAnalysisDtoList", examItemAnalysisDtoList);
+
+		return "exam/itemAnalysis";
+	}
+
+	/**
+	 * 試験結果一覧画面 初期表示
+	 * 
+	 * @param examResultSearchForm
+	 * @param model
+	 * @return 試験結果一覧画面
+	 */
+	@RequestMapping(path = "/resultList", method = RequestMethod.GET)
+	public String resultList(@ModelAttribute ExamResultSearchForm examResultSearchForm,
+			Model model) {
+
+		// 企業担当者は自社の受講生のみ
+		if (loginUserUtil.isCompany()) {
+			examResultSearchForm.setCompanyId(loginUserDto.getCompanyId());
+		}
+		// 試験結果一覧の取得
+		List<ExamResultListDto> examResultListDtoList = examService
+				.getExamResultList(examResultSearchForm);
+		model.addAttribute("examResultListDtoList", examResultListDtoList);
+		// 次ページ
+		if (examService.hasNextExamResultList(examResultListDtoList)) {
+			ExamResultListDto lastDto = examResultListDtoList.get(examResultListDtoList.size() - 1);
+			model.addAttribute("nextExamSectionId", lastDto.getExamSectionId());
+			model.addAttribute("nextExamResultId", lastDto.getExamResultId());
+		}
+
+		return "exam/resultList";
+	}
+
+	/**
+	 * 試験結果一覧画面 『削除』ボタン押下
+	 * 
+	 * @param examResultIdList
+	 * @param examResultSearchForm
+	 * @param model
+	 * @return 試験結果一覧画面
+	 */
+	@RequestMapping(path = "/deleteResultList", method = RequestMethod.POST)
+	public String deleteResultList(
+			@RequestParam(name = "examResultId", required = false) List<Integer> examResultIdList,
+			@ModelAttribute ExamResultSearchForm examResultSearchForm, Model model) {
+
+		// 試験結果の一括削除
+		int count = examService.deleteExamResultList(examResultIdList);
+		model.addAttribute("message", messageUtil.getMessage(
+				Constants.PROP_KEY_EXAM_DELETERESULTLIST_NOTICE,
+				new String[] { String.valueOf(count) }));
+
+		// 削除後は先頭ページから表示
+		examResultSearchForm.setLastExamSectionId(null);
+		examResultSearchForm.setLastExamResultId(null);
+		return resultList(examResultSearchForm, model);
+	}
+
 }
@@ -1,15 +1,23 @@
 package jp.co.sss.lms.controller;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletResponse;
 import jp.co.sss.lms.form.DailyReportDownloadForm;
@@ -90,4 +98,27 @@ public class ReportController {
 				dailyReportDownloadForm.getDailyReportSubmitId(), response);
 	}
 
+	/**
+	 * ユーザー詳細画面 『一括ダウンロード（レポート）』ボタン押下<br>
+	 * ZIPファイルは作成しながら返却するため、レポート数によらず一時ファイル・全件分のメモリを使用しない。
+	 * 
+	 * @param dailyReportDownloadForm
+	 * @return レポートのZIPファイル
+	 */
+	@RequestMapping(path = "/downloadList", method = RequestMethod.POST)
+	public ResponseEntity<StreamingResponseBody> downloadList(
+			DailyReportDownloadForm dailyReportDownloadForm) {
+
+		ContentDisposition contentDisposition = ContentDisposition.attachment()
+				.filename("レポート_" + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date())
+						+ ".zip", StandardCharsets.UTF_8)
+				.build();
+		StreamingResponseBody body = out -> reportService.downloadList(
+				dailyReportDownloadForm.getDailyReportIdList(),
+				dailyReportDownloadForm.getDailyReportSubmitIdList(), out);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+				.body(body);
+	}
+
 }
@@ -0,0 +1,24 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 勤怠情報一括登録結果DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceBulkRegistDto {
+
+	/** 取込件数（見出し行・空行を除く） */
+	private int totalCount;
+	/** 登録件数 */
+	private int registCount;
+	/** 行ごとのエラーメッセージ */
+	private List<String> errorList;
+	/** 処理時間（ミリ秒） */
+	private long elapsedMillis;
+
+}
@@ -0,0 +1,22 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * コース勤怠一覧（受講生単位）DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceRosterDto {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 研修日ごとの勤怠情報リスト（日付昇順） */
+	private List<UserAttendanceDto> attendanceList;
+
+}
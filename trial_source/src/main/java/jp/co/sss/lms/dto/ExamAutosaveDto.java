@@ -0,0 +1,18 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 試験回答自動保存DTO
+ *
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamAutosaveDto {
+
+	/** 保存結果 */
+	private Boolean result;
+	/** 経過時間（ミリ秒） */
+	private Integer time;
+
+}
@@ -27,6 +27,10 @@ public class ExamDetailDto {
 	private Integer limitTime;
 	/** 平均点 */
 	private Double avgScore;
+	/** 標準偏差 */
+	private Double stdDevScore;
+	/** パーセンタイル順位（採点対象の得点以下の受験者の割合） */
+	private Double percentile;
 	/** セクションID */
 	private Integer sectionId;
 	/** LMSユーザーID */
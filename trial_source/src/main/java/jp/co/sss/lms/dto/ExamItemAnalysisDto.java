@@ -0,0 +1,42 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 試験問題分析DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamItemAnalysisDto {
+
+	/** 試験・セクション紐づけID */
+	private Integer examSectionId;
+	/** 試験名 */
+	private String examName;
+	/** 問題ID */
+	private Integer questionId;
+	/** ジャンル詳細名 */
+	private String genreDetailName;
+	/** 問題 */
+	private String question;
+	/** 正答 */
+	private Short answerNum;
+	/** 回答件数 */
+	private Integer resultCount;
+	/** 正答率（%） */
+	private Double correctRate;
+	/** 選択肢1の回答割合（%） */
+	private Double choice1Rate;
+	/** 選択肢2の回答割合（%） */
+	private Double choice2Rate;
+	/** 選択肢3の回答割合（%） */
+	private Double choice3Rate;
+	/** 選択肢4の回答割合（%） */
+	private Double choice4Rate;
+	/** 未回答の割合（%） */
+	private Double noReplyRate;
+	/** 識別力（点双列相関係数） */
+	private Double discrimination;
+
+}
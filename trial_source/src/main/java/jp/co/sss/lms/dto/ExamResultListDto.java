@@ -0,0 +1,38 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 試験結果一覧DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamResultListDto {
+
+	/** 試験結果ID */
+	private Integer examResultId;
+	/** 試験・セクション紐づけID */
+	private Integer examSectionId;
+	/** 試験名 */
+	private String examName;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 得点 */
+	private Short score;
+	/** 問題数 */
+	private Integer numOfQuestion;
+	/** 点数（100点満点） */
+	private Double point;
+	/** 所要時間 */
+	private Integer time;
+	/** 採点対象フラグ */
+	private Short markFlg;
+	/** 受験日時 */
+	private Date date;
+
+}
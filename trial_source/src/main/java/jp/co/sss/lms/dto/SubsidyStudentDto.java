@@ -0,0 +1,36 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 助成金申請書類 受講生DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class SubsidyStudentDto {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** コースID */
+	private Integer courseId;
+	/** コース名 */
+	private String courseName;
+	/** コース詳細 */
+	private String courseDescription;
+	/** 開講日 */
+	private Date openTime;
+	/** 閉講日 */
+	private Date closeTime;
+	/** 会場名 */
+	private String placeName;
+	/** 会場説明 */
+	private String placeDescription;
+	/** 収容可能人数 */
+	private Integer seatingCapacity;
+
+}
@@ -38,5 +38,11 @@ public class UserAttendanceDto {
 	private Short status;
 	/** 備考 */
 	private String note;
+	/** セクション名 */
+	private String sectionName;
+	/** 中抜け時間（画面表示用） */
+	private String blankTimeValue;
+	/** 勤怠状態（画面表示用） */
+	private String statusDispName;
 
 }
@@ -0,0 +1,38 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 勤怠集計（受講生・月別）テーブルエンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TStudentAttendanceSummary {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** 対象月（月初日） */
+	private Date targetMonth;
+	/** 勤怠状態：なし 件数 */
+	private Integer noneCount;
+	/** 勤怠状態：欠席 件数 */
+	private Integer absentCount;
+	/** 勤怠状態：遅刻 件数 */
+	private Integer tardyCount;
+	/** 勤怠状態：早退 件数 */
+	private Integer leavingEarlyCount;
+	/** 勤怠状態：遅刻早退 件数 */
+	private Integer tardyAndLeavingEarlyCount;
+	/** 勤務時間（分） */
+	private Integer workMinute;
+	/** 中抜け時間（分） */
+	private Integer blankMinute;
+	/** 未入力件数 */
+	private Integer notEnterCount;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
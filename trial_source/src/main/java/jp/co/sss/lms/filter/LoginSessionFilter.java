@@ -194,6 +194,7 @@ public class LoginSessionFilter implements Filter {
 		studentAcessList.add("/lms/exam/result");
 		studentAcessList.add("/lms/exam/resultDetail");
 		studentAcessList.add("/lms/exam/answerCheck");
+		studentAcessList.add("/lms/exam/autosave");
 		studentAcessList.add("/lms/report/detail");
 		studentAcessList.add("/lms/report/regist");
 		studentAcessList.add("/lms/report/complete");
@@ -245,9 +246,11 @@ public class LoginSessionFilter implements Filter {
 		teacherAcessList.add("/lms/exam/resultDetail");
 		teacherAcessList.add("/lms/exam/resultList");
 		teacherAcessList.add("/lms/exam/deleteResultList");
+		teacherAcessList.add("/lms/exam/itemAnalysis");
 		teacherAcessList.add("/lms/attendance/list");
 		teacherAcessList.add("/lms/attendance/detail");
 		teacherAcessList.add("/lms/attendance/bulkRegist");
+		teacherAcessList.add("/lms/attendance/subsidy/download");
 		teacherAcessList.add("/lms/attendance/update");
 		teacherAcessList.add("/lms/attendance/updateAdmin");
 		teacherAcessList.add("/lms/evReport/score");
@@ -284,6 +287,7 @@ public class LoginSessionFilter implements Filter {
 		companyAcessList.add("/lms/report/feedback/update");
 		companyAcessList.add("/lms/attendance/list");
 		companyAcessList.add("/lms/attendance/detail");
+		companyAcessList.add("/lms/attendance/subsidy/download");
 		companyAcessList.add("/lms/exam/list");
 		companyAcessList.add("/lms/exam/resultList");
 		companyAcessList.add("/lms/exam/detail");
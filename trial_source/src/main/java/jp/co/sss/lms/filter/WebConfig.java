@@ -1,14 +1,40 @@
 package jp.co.sss.lms.filter;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import jakarta.annotation.PreDestroy;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+	/** MVC非同期処理のスレッド数 */
+	@Value("${setting.mvc.async.poolSize}")
+	private int asyncPoolSize;
+	/** MVC非同期処理の待ち件数の上限 */
+	@Value("${setting.mvc.async.queueCapacity}")
+	private int asyncQueueCapacity;
+
+	/** 助成金申請書類作成（@Async）のスレッド数 */
+	@Value("${setting.subsidy.async.poolSize}")
+	private int subsidyPoolSize;
+	/** 助成金申請書類作成（@Async）の待ち件数の上限 */
+	@Value("${setting.subsidy.async.queueCapacity}")
+	private int subsidyQueueCapacity;
+
+	/** MVC非同期処理のスレッドプール */
+	private final ThreadPoolTaskExecutor asyncExecutor = new ThreadPoolTaskExecutor();
+
 	@Override
 	public Validator getValidator() {
 		LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
@@ -22,4 +48,46 @@ public class WebConfig implements WebMvcConfigurer {
 		return validator;
 	}
 
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		// StreamingResponseBody等の返却は助成金申請書類の作成・一括ダウンロードのワークブック作成とは別のスレッドプールで実行する
+		asyncExecutor.setCorePoolSize(asyncPoolSize);
+		asyncExecutor.setMaxPoolSize(asyncPoolSize);
+		asyncExecutor.setQueueCapacity(asyncQueueCapacity);
+		asyncExecutor.setThreadNamePrefix("mvc-async-");
+		asyncExecutor.initialize();
+		configurer.setTaskExecutor(asyncExecutor);
+	}
+
+	/**
+	 * 助成金申請書類作成（@Async）のスレッドプール
+	 *
+	 * @return スレッドプール
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor subsidyTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(subsidyPoolSize);
+		executor.setMaxPoolSize(subsidyPoolSize);
+		executor.setQueueCapacity(subsidyQueueCapacity);
+		executor.setThreadNamePrefix("subsidy-");
+		return executor;
+	}
+
+	/**
+	 * 一括ダウンロードのワークブック作成用のスレッドプール<br>
+	 * 同時に作成するワークブック数はWorkbookZipUtilの許可数で制限するため、仮想スレッドで実行する。
+	 *
+	 * @return スレッドプール
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService workbookZipExecutor() {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("workbook-zip-", 0).factory());
+	}
+
+	@PreDestroy
+	public void destroy() {
+		asyncExecutor.shutdown();
+	}
+
 }
@@ -0,0 +1,34 @@
+package jp.co.sss.lms.form;
+
+import java.util.Date;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Data;
+
+/**
+ * 試験結果検索フォーム
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamResultSearchForm {
+
+	/** コースID */
+	private Integer courseId;
+	/** 企業ID */
+	private Integer companyId;
+	/** 試験ID */
+	private Integer examId;
+	/** 受験日（開始） */
+	@DateTimeFormat(pattern = "yyyy-MM-dd")
+	private Date dateFrom;
+	/** 受験日（終了） */
+	@DateTimeFormat(pattern = "yyyy-MM-dd")
+	private Date dateTo;
+	/** 前ページ最後の試験・セクション紐づけID */
+	private Integer lastExamSectionId;
+	/** 前ページ最後の試験結果ID */
+	private Integer lastExamResultId;
+
+}
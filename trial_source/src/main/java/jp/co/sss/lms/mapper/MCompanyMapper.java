@@ -0,0 +1,26 @@
+package jp.co.sss.lms.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.MCompany;
+
+/**
+ * 企業マスタマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface MCompanyMapper {
+
+	/**
+	 * 企業取得
+	 * 
+	 * @param companyId
+	 * @param deleteFlg
+	 * @return 企業マスタエンティティ
+	 */
+	MCompany findByCompanyId(@Param("companyId") Integer companyId,
+			@Param("deleteFlg") Short deleteFlg);
+
+}
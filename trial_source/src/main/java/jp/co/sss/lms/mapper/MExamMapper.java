@@ -1,8 +1,12 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamQuestionDto;
 
 /**
@@ -23,4 +27,26 @@ public interface MExamMapper {
 	ExamQuestionDto getExamQuestion(@Param("examId") Integer examId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 試験バージョン取得<br>
+	 * 試験・問題の最終更新日時と問題数を連結した文字列を返す。
+	 * 
+	 * @param examId
+	 * @param deleteFlg
+	 * @return 試験バージョン（試験が存在しない場合はnull）
+	 */
+	String getExamVersion(@Param("examId") Integer examId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 公開予定の試験取得<br>
+	 * 公開日時が指定期間内（開始日時を含まず終了日時を含む）の試験・セクション紐づけを返す。
+	 * 
+	 * @param publicDateFrom
+	 * @param publicDateTo
+	 * @param deleteFlg
+	 * @return 試験詳細DTOリスト（試験・セクション紐づけID、試験ID、試験名、公開日時のみ設定）
+	 */
+	List<ExamDetailDto> getUpcomingExamSectionList(@Param("publicDateFrom") Date publicDateFrom,
+			@Param("publicDateTo") Date publicDateTo, @Param("deleteFlg") Short deleteFlg);
+
 }
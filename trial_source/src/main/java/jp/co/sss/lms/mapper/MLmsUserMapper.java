@@ -1,9 +1,13 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.SubsidyStudentDto;
 import jp.co.sss.lms.dto.UserDetailDto;
+import jp.co.sss.lms.entity.MLmsUser;
 
 /**
  * LMSユーザーマスタマッパー
@@ -23,4 +27,24 @@ public interface MLmsUserMapper {
 	UserDetailDto getUserDetail(@Param("lmsUserId") Integer lmsUserId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * コースの受講生取得
+	 * 
+	 * @param courseId
+	 * @param deleteFlg
+	 * @return LMSユーザーマスタエンティティリスト
+	 */
+	List<MLmsUser> findStudentByCourseId(@Param("courseId") Integer courseId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 企業の受講生取得（助成金申請書類用）
+	 * 
+	 * @param companyId
+	 * @param deleteFlg
+	 * @return 助成金申請書類 受講生DTOリスト（コースID、LMSユーザーID昇順）
+	 */
+	List<SubsidyStudentDto> findSubsidyStudentByCompanyId(@Param("companyId") Integer companyId,
+			@Param("deleteFlg") Short deleteFlg);
+
 }
@@ -1,11 +1,12 @@
 package jp.co.sss.lms.mapper;
 
-import java.util.Date;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
+import jp.co.sss.lms.entity.MSection;
 
 /**
  * セクションマスタマッパー
@@ -37,13 +38,13 @@ public interface MSectionMapper {
 	Integer getSectionCount(@Param("sectionId") Integer sectionId);
 
 	/**
-	 * セクション件数取得（コースID）
+	 * セクション取得（コースID）
 	 * 
 	 * @param courseId
-	 * @param date
-	 * @return セクション件数
+	 * @param deleteFlg
+	 * @return セクションマスタエンティティリスト（日付昇順）
 	 */
-	Integer getSectionCountByCourseId(@Param("courseId") Integer courseId,
-			@Param("date") Date date);
+	List<MSection> findByCourseId(@Param("courseId") Integer courseId,
+			@Param("deleteFlg") Short deleteFlg);
 
 }
@@ -1,7 +1,5 @@
 package jp.co.sss.lms.mapper;
 
-import java.util.Date;
-
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -16,19 +14,17 @@ import jp.co.sss.lms.dto.DailyReportDto;
 public interface TCourseDailyReportMapper {
 
 	/**
-	 * レポートDTO取得
+	 * 日報テンプレート取得<br>
+	 * コースに紐づく日報の日報マスタ・日報詳細マスタのみを取得する（提出内容は含まない）
 	 * 
 	 * @param dailyReportId
 	 * @param courseId
 	 * @param accountId
-	 * @param lmsUserId
 	 * @param deleteFlg
-	 * @param date
-	 * @return レポートDTO
+	 * @return レポートDTO（紐付けが無い場合はnull）
 	 */
-	DailyReportDto getDailyReportDto(@Param("dailyReportId") Integer dailyReportId,
+	DailyReportDto getDailyReportTemplate(@Param("dailyReportId") Integer dailyReportId,
 			@Param("courseId") Integer courseId, @Param("accountId") Integer accountId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg,
-			@Param("date") Date date);
+			@Param("deleteFlg") Short deleteFlg);
 
 }
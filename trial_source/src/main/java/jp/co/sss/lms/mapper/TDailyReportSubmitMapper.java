@@ -1,12 +1,16 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.DailyReportDetailDto;
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
 import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.dto.DailyReportFbDto;
+import jp.co.sss.lms.dto.IntelligibilityDto;
 import jp.co.sss.lms.entity.TDailyReportSubmit;
 
 /**
@@ -44,7 +48,20 @@ public interface TDailyReportSubmitMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * レポートダウンロードDTO取得
+	 * 提出内容取得<br>
+	 * 日報・受講生・日付に一致する日報提出と、項目番号ごとの提出内容を取得する
+	 * 
+	 * @param dailyReportId
+	 * @param lmsUserId
+	 * @param date
+	 * @return レポートDTO（日報提出ID・日報ID・日付・レポート詳細DTOリストのみ、未提出の場合はnull）
+	 */
+	DailyReportDto getDailyReportSubmitContent(@Param("dailyReportId") Integer dailyReportId,
+			@Param("lmsUserId") Integer lmsUserId, @Param("date") Date date);
+
+	/**
+	 * レポートダウンロードDTO取得<br>
+	 * 明細（レポート詳細・理解度・フィードバック）のリストは設定しない
 	 * 
 	 * @param dailyReportSubmitId
 	 * @param dailyReportId
@@ -55,6 +72,41 @@ public interface TDailyReportSubmitMapper {
 			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
 			@Param("dailyReportId") Integer dailyReportId, @Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * レポートダウンロード用レポート詳細DTOリスト取得<br>
+	 * 日報詳細マスタの項目ごとに、項目番号が一致する提出内容を設定する
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param dailyReportId
+	 * @param deleteFlg
+	 * @return レポート詳細DTOリスト（項目番号順）
+	 */
+	List<DailyReportDetailDto> getDailyReportDownloadDetailList(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("dailyReportId") Integer dailyReportId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * レポートダウンロード用理解度DTOリスト取得
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param deleteFlg
+	 * @return 理解度DTOリスト（項目番号順）
+	 */
+	List<IntelligibilityDto> getDailyReportDownloadIntelligibilityList(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * レポートダウンロード用レポートフィードバックDTOリスト取得
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param deleteFlg
+	 * @return レポートフィードバックDTOリスト（登録順）
+	 */
+	List<DailyReportFbDto> getDailyReportDownloadFbList(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("deleteFlg") Short deleteFlg);
+
 	/**
 	 * レポートDTO取得
 	 * 
@@ -0,0 +1,88 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.dto.ExamItemAnalysisDto;
+
+/**
+ * 試験問題分析（試験セクション・問題別）テーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TExamItemStatsMapper {
+
+	/**
+	 * 処理済み試験結果IDの取得（行ロック）<br>
+	 * 複数のアプリケーションから同時に集計しないよう、トランザクション終了までロックする
+	 * 
+	 * @return 処理済み試験結果ID
+	 */
+	Integer getLastExamResultIdForUpdate();
+
+	/**
+	 * 集計範囲の終端試験結果IDの取得<br>
+	 * 登録から待機時間が経過していない試験結果の手前までを、最大件数分取得する
+	 * 
+	 * @param lastExamResultId 処理済み試験結果ID
+	 * @param batchSize        最大件数
+	 * @param lagDate          待機時間の基準日時（アプリケーションの現在日時－待機時間）
+	 * @return 終端試験結果ID（対象が無い場合はnull）
+	 */
+	Integer getNextExamResultId(@Param("lastExamResultId") Integer lastExamResultId,
+			@Param("batchSize") Integer batchSize, @Param("lagDate") Date lagDate);
+
+	/**
+	 * 集計値の加算<br>
+	 * 試験結果IDが範囲内の採点対象の試験結果詳細を集計し、登録・加算する
+	 * 
+	 * @param fromExamResultId 開始試験結果ID（この値を含まない）
+	 * @param toExamResultId   終端試験結果ID（この値を含む）
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 登録・更新件数
+	 */
+	Integer addStats(@Param("fromExamResultId") Integer fromExamResultId,
+			@Param("toExamResultId") Integer toExamResultId,
+			@Param("lastModifiedDate") Date lastModifiedDate, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 集計値の減算<br>
+	 * 削除する試験結果のうち集計済み（処理済み試験結果ID以下）の採点対象分を減算する。
+	 * 試験結果詳細を論理削除する前に呼び出すこと。
+	 * 
+	 * @param examResultIdList 削除する試験結果IDリスト
+	 * @param lastExamResultId 処理済み試験結果ID
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 更新件数
+	 */
+	Integer subtractStats(@Param("examResultIdList") List<Integer> examResultIdList,
+			@Param("lastExamResultId") Integer lastExamResultId,
+			@Param("lastModifiedDate") Date lastModifiedDate, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 処理済み試験結果IDの更新
+	 * 
+	 * @param lastExamResultId
+	 * @param lastModifiedDate
+	 * @return 更新件数
+	 */
+	Integer updateLastExamResultId(@Param("lastExamResultId") Integer lastExamResultId,
+			@Param("lastModifiedDate") Date lastModifiedDate);
+
+	/**
+	 * 試験問題分析DTO取得
+	 * 
+	 * @param examSectionId
+	 * @param deleteFlg
+	 * @return 試験問題分析DTOリスト（問題ID昇順）
+	 */
+	List<ExamItemAnalysisDto> getExamItemAnalysis(@Param("examSectionId") Integer examSectionId,
+			@Param("deleteFlg") Short deleteFlg);
+
+}
@@ -1,6 +1,10 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.entity.TExamResultDetail;
 
@@ -13,11 +17,23 @@ import jp.co.sss.lms.entity.TExamResultDetail;
 public interface TExamResultDetailMapper {
 
 	/**
-	 * 試験結果詳細登録
+	 * 試験結果詳細一括登録
+	 * 
+	 * @param tExamResultDetailList
+	 * @return 登録件数
+	 */
+	Integer insertList(@Param("list") List<TExamResultDetail> tExamResultDetailList);
+
+	/**
+	 * 試験結果詳細一括削除（論理削除）
 	 * 
-	 * @param tExamResultDetail
-	 * @return 登録結果
+	 * @param examResultIdList
+	 * @param lastModifiedUser
+	 * @param lastModifiedDate
+	 * @return 削除件数
 	 */
-	Boolean insert(TExamResultDetail tExamResultDetail);
+	Integer deleteByExamResultIdList(@Param("examResultIdList") List<Integer> examResultIdList,
+			@Param("lastModifiedUser") Integer lastModifiedUser,
+			@Param("lastModifiedDate") Date lastModifiedDate);
 
 }
@@ -1,5 +1,6 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -8,7 +9,9 @@ import org.apache.ibatis.annotations.Param;
 import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
 import jp.co.sss.lms.dto.ExamResultDto;
+import jp.co.sss.lms.dto.ExamResultListDto;
 import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.form.ExamResultSearchForm;
 
 /**
  * 試験結果テーブルマッパー
@@ -51,22 +54,37 @@ public interface TExamResultMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * 試験結果登録
+	 * 試験結果登録（初回採点対象）<br>
+	 * 採点対象の試験結果が無い場合は採点対象として、有る場合は採点対象外として1文で登録する
 	 * 
-	 * @param tExamResult
-	 * @return 登録結果
+	 * @param tExamResult 採点対象フラグ以外を設定した試験結果エンティティ
+	 * @return 登録した試験結果エンティティ（試験結果ID・採点対象フラグのみ）
 	 */
-	Boolean insert(TExamResult tExamResult);
+	TExamResult insertMarkingFirst(TExamResult tExamResult);
 
 	/**
-	 * 試験件数取得
+	 * 試験結果一覧DTO取得<br>
+	 * 試験・セクション紐づけID＋試験結果IDの順で、前ページ最後の試験結果より後を取得する
 	 * 
-	 * @param examSectionId
-	 * @param lmsUserId
+	 * @param form      試験結果検索フォーム
+	 * @param limit     取得件数
 	 * @param deleteFlg
-	 * @return 件数
+	 * @return 試験結果一覧DTOリスト
 	 */
-	Integer getExamCount(@Param("examSectionId") Integer examSectionId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
+	List<ExamResultListDto> getExamResultList(@Param("form") ExamResultSearchForm form,
+			@Param("limit") Integer limit, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 試験結果一括削除（論理削除）
+	 * 
+	 * @param examResultIdList
+	 * @param lastModifiedUser
+	 * @param lastModifiedDate
+	 * @return 削除した試験結果エンティティリスト（試験結果ID・試験・セクション紐づけID・採点対象フラグのみ）
+	 */
+	List<TExamResult> deleteByExamResultIdList(
+			@Param("examResultIdList") List<Integer> examResultIdList,
+			@Param("lastModifiedUser") Integer lastModifiedUser,
+			@Param("lastModifiedDate") Date lastModifiedDate);
 
 }
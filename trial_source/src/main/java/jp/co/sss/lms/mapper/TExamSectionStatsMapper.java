@@ -0,0 +1,41 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 試験統計（試験セクション別）テーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TExamSectionStatsMapper {
+
+	/**
+	 * 得点の加算<br>
+	 * 採点対象の試験結果1件分の得点を受験件数・得点合計・得点二乗合計・得点分布に加算する
+	 * 
+	 * @param examSectionId
+	 * @param score
+	 * @param lastModifiedDate
+	 * @return 登録・更新件数
+	 */
+	Integer addScore(@Param("examSectionId") Integer examSectionId,
+			@Param("score") Short score, @Param("lastModifiedDate") Date lastModifiedDate);
+
+	/**
+	 * 再集計<br>
+	 * 指定した試験セクションの採点対象の試験結果から集計し、登録・更新する
+	 * 
+	 * @param examSectionIdList
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 登録・更新件数
+	 */
+	Integer refresh(@Param("examSectionIdList") List<Integer> examSectionIdList,
+			@Param("lastModifiedDate") Date lastModifiedDate, @Param("deleteFlg") Short deleteFlg);
+
+}
@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -38,4 +40,15 @@ public interface TIntelligibilityMapper {
 	 */
 	Boolean insert(TIntelligibility tIntelligibility);
 
+	/**
+	 * 理解度差分更新<br>
+	 * 項目番号で突き合わせ、変更・追加・削除された項目のみを1文で反映する
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param list 理解度エンティティリスト（1件以上）
+	 * @return 変更した行数
+	 */
+	Integer merge(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("list") List<TIntelligibility> list);
+
 }
@@ -1,6 +1,5 @@
 package jp.co.sss.lms.mapper;
 
-import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -30,19 +29,17 @@ public interface TSectionDailyReportMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * レポートDTO取得
+	 * 日報テンプレート取得<br>
+	 * セクションに紐づく日報の日報マスタ・日報詳細マスタのみを取得する（提出内容は含まない）
 	 * 
 	 * @param dailyReportId
 	 * @param sectionId
 	 * @param accountId
-	 * @param lmsUserId
 	 * @param deleteFlg
-	 * @param date
-	 * @return レポートDTO
+	 * @return レポートDTO（紐付けが無い場合はnull）
 	 */
-	DailyReportDto getDailyReportDto(@Param("dailyReportId") Integer dailyReportId,
+	DailyReportDto getDailyReportTemplate(@Param("dailyReportId") Integer dailyReportId,
 			@Param("sectionId") Integer sectionId, @Param("accountId") Integer accountId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg,
-			@Param("date") Date date);
+			@Param("deleteFlg") Short deleteFlg);
 
 }
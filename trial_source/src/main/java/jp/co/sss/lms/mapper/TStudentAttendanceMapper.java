@@ -5,8 +5,9 @@ import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
-import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.UserAttendanceDto;
 import jp.co.sss.lms.entity.TStudentAttendance;
 
 /**
@@ -28,26 +29,15 @@ public interface TStudentAttendanceMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * 勤怠情報（受講生入力）取得（LMSユーザーID＆日付）
+	 * 勤怠情報（受講生入力）取得（LMSユーザーID＆対象月）
 	 * 
 	 * @param lmsUserId
-	 * @param trainingDate
-	 * @param deleteFlg
-	 * @return 勤怠情報（受講生入力）エンティティ
-	 */
-	TStudentAttendance findByLmsUserIdAndTrainingDate(@Param("lmsUserId") Integer lmsUserId,
-			@Param("trainingDate") Date trainingDate, @Param("deleteFlg") Short deleteFlg);
-
-	/**
-	 * 勤怠管理画面用DTOリスト取得
-	 * 
-	 * @param courseId
-	 * @param lmsUserId
+	 * @param targetMonth 対象月の任意の日付
 	 * @param deleteFlg
-	 * @return 勤怠管理画面用DTOリスト
+	 * @return 勤怠情報（受講生入力）エンティティリスト（日付昇順）
 	 */
-	List<AttendanceManagementDto> getAttendanceManagement(@Param("courseId") Integer courseId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
+	List<TStudentAttendance> findByLmsUserIdAndTargetMonth(@Param("lmsUserId") Integer lmsUserId,
+			@Param("targetMonth") Date targetMonth, @Param("deleteFlg") Short deleteFlg);
 
 	/**
 	 * 勤怠情報（受講生入力）登録
@@ -66,15 +56,72 @@ public interface TStudentAttendanceMapper {
 	Boolean update(TStudentAttendance tStudentAttendance);
 
 	/**
-	 * task25
-	 * @author 田中智貴
+	 * 勤怠情報（受講生入力）一括登録・更新<br>
+	 * LMSユーザーID＋日付が既に存在する場合は更新する
+	 * 
+	 * @param tStudentAttendanceList
+	 * @return 登録・更新件数
+	 */
+	Integer upsertList(@Param("list") List<TStudentAttendance> tStudentAttendanceList);
+
+	/**
+	 * 出勤打刻<br>
+	 * 当日の勤怠情報が無い、または出勤時刻が未入力の場合のみ登録・更新する
+	 * 
+	 * @param tStudentAttendance
+	 * @return 登録・更新件数（出勤時刻が入力済みの場合は0）
+	 */
+	Integer punchIn(TStudentAttendance tStudentAttendance);
+
+	/**
+	 * 退勤打刻<br>
+	 * 出勤時刻が入力済みかつ退勤時刻が未入力の場合のみ更新する
+	 * 
 	 * @param lmsUserId
 	 * @param trainingDate
+	 * @param trainingEndTime    退勤時刻（登録値）
+	 * @param trainingEndMinutes 退勤時刻（0時からの経過分数）
+	 * @param workStartMinutes   定時開始時刻（0時からの経過分数）
+	 * @param workEndMinutes     定時終了時刻（0時からの経過分数）
+	 * @param lastModifiedUser
+	 * @param lastModifiedDate
 	 * @param deleteFlg
-	 * @return Integer
+	 * @return 退勤打刻結果（Constants.PUNCH_OUT_RESULT_*）
 	 */
-	Integer notEnterCount(@Param("lmsUserId") Integer lmsUserId,
+	Integer punchOut(@Param("lmsUserId") Integer lmsUserId,
 			@Param("trainingDate") Date trainingDate,
+			@Param("trainingEndTime") String trainingEndTime,
+			@Param("trainingEndMinutes") int trainingEndMinutes,
+			@Param("workStartMinutes") int workStartMinutes,
+			@Param("workEndMinutes") int workEndMinutes,
+			@Param("lastModifiedUser") Integer lastModifiedUser,
+			@Param("lastModifiedDate") Date lastModifiedDate,
 			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 勤怠情報未入力の有無（研修日より前）
+	 * 
+	 * @param lmsUserId
+	 * @param trainingDate
+	 * @return 未入力の勤怠情報がある場合true
+	 */
+	Boolean existsNotEnter(@Param("lmsUserId") Integer lmsUserId,
+			@Param("trainingDate") Date trainingDate);
+
+	/**
+	 * コース勤怠一覧取得<br>
+	 * LMSユーザーIDの昇順に、指定IDより後の受講生を最大件数分取得し、研修日ごとに1件ずつハンドラへ渡す
+	 * 
+	 * @param courseId
+	 * @param companyId     企業ID（企業担当者の場合のみ指定）
+	 * @param lastLmsUserId 前ページ最後のLMSユーザーID（先頭ページの場合はnull）
+	 * @param limit         受講生の最大件数
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void getAttendanceRoster(@Param("courseId") Integer courseId,
+			@Param("companyId") Integer companyId, @Param("lastLmsUserId") Integer lastLmsUserId,
+			@Param("limit") Integer limit, @Param("deleteFlg") Short deleteFlg,
+			ResultHandler<UserAttendanceDto> resultHandler);
+
 }
-	
\ No newline at end of file
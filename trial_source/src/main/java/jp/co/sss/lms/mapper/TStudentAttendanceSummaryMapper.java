@@ -0,0 +1,69 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TStudentAttendanceSummary;
+
+/**
+ * 勤怠集計（受講生・月別）テーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TStudentAttendanceSummaryMapper {
+
+	/**
+	 * 勤怠集計取得（LMSユーザーID＆対象月）
+	 * 
+	 * @param lmsUserId
+	 * @param targetMonth 対象月の任意の日付
+	 * @return 勤怠集計エンティティ
+	 */
+	TStudentAttendanceSummary findByLmsUserIdAndTargetMonth(@Param("lmsUserId") Integer lmsUserId,
+			@Param("targetMonth") Date targetMonth);
+
+	/**
+	 * 勤怠集計取得（コースID＆対象月）
+	 * 
+	 * @param courseId
+	 * @param targetMonth 対象月の任意の日付
+	 * @param deleteFlg
+	 * @return 勤怠集計エンティティリスト
+	 */
+	List<TStudentAttendanceSummary> findByCourseIdAndTargetMonth(
+			@Param("courseId") Integer courseId, @Param("targetMonth") Date targetMonth,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 勤怠集計の再集計<br>
+	 * 対象月の勤怠情報（受講生入力）から1行分を集計し、登録・更新する
+	 * 
+	 * @param lmsUserId
+	 * @param targetMonth 対象月の任意の日付
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 登録・更新件数
+	 */
+	Integer refresh(@Param("lmsUserId") Integer lmsUserId,
+			@Param("targetMonth") Date targetMonth,
+			@Param("lastModifiedDate") Date lastModifiedDate,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 未入力件数の再集計<br>
+	 * 日付の変更により過去日となった勤怠情報を未入力件数に反映する（値が変わる行のみ更新する）
+	 * 
+	 * @param fromDate 再集計する最初の月の任意の日付
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 更新件数
+	 */
+	Integer refreshNotEnterCount(@Param("fromDate") Date fromDate,
+			@Param("lastModifiedDate") Date lastModifiedDate,
+			@Param("deleteFlg") Short deleteFlg);
+
+}
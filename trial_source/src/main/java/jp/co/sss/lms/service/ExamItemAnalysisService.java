@@ -0,0 +1,74 @@
+package jp.co.sss.lms.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jp.co.sss.lms.dto.ExamItemAnalysisDto;
+import jp.co.sss.lms.mapper.TExamItemStatsMapper;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * 試験問題分析サービス<br>
+ * 試験結果詳細を処理済みの試験結果IDより後の分だけ定期的に集計し、問題ごとの集計値に加算する。
+ * 画面には集計値から算出した正答率・選択肢別回答割合・識別力を表示する。
+ * 
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamItemAnalysisService {
+
+	@Autowired
+	private TExamItemStatsMapper tExamItemStatsMapper;
+
+	/** 1回の集計で処理する最大試験結果件数 */
+	@Value("${setting.exam.itemAnalysis.batchSize}")
+	private int batchSize;
+	/** 登録後、集計対象とするまでの待機時間（秒） */
+	@Value("${setting.exam.itemAnalysis.lagSecond}")
+	private int lagSecond;
+
+	/**
+	 * 試験問題分析DTOリストの取得
+	 * 
+	 * @param examSectionId
+	 * @return 試験問題分析DTOリスト
+	 */
+	public List<ExamItemAnalysisDto> getExamItemAnalysis(Integer examSectionId) {
+		return tExamItemStatsMapper.getExamItemAnalysis(examSectionId, Constants.DB_FLG_FALSE);
+	}
+
+	/**
+	 * 集計処理<br>
+	 * 処理済み試験結果IDの行をロックし、集計値の加算と処理済み試験結果IDの更新を同一トランザクションで行う。
+	 * 未処理が残っている場合は次回実行時に続きから集計する。
+	 * 
+	 * @return 処理した終端試験結果ID（対象が無い場合はnull）
+	 */
+	@Scheduled(fixedDelayString = "${setting.exam.itemAnalysis.delayMillis}")
+	@Transactional
+	public Integer aggregate() {
+		Integer lastExamResultId = tExamItemStatsMapper.getLastExamResultIdForUpdate();
+		if (lastExamResultId == null) {
+			return null;
+		}
+		// 試験結果の登録日時と同じアプリケーションの時刻を基準とする
+		Date now = new Date();
+		Integer nextExamResultId = tExamItemStatsMapper.getNextExamResultId(lastExamResultId,
+				batchSize, new Date(now.getTime() - TimeUnit.SECONDS.toMillis(lagSecond)));
+		if (nextExamResultId == null) {
+			return null;
+		}
+		tExamItemStatsMapper.addStats(lastExamResultId, nextExamResultId, now,
+				Constants.DB_FLG_FALSE);
+		tExamItemStatsMapper.updateLastExamResultId(nextExamResultId, now);
+		return nextExamResultId;
+	}
+
+}
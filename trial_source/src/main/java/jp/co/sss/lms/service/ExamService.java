@@ -1,27 +1,42 @@
 package jp.co.sss.lms.service;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import jp.co.sss.lms.dto.ExamAutosaveDto;
 import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamQuestionDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamResultListDto;
 import jp.co.sss.lms.dto.LoginUserDto;
-import jp.co.sss.lms.dto.QuestionDto;
-import jp.co.sss.lms.entity.MQuestion;
 import jp.co.sss.lms.entity.TExamResult;
 import jp.co.sss.lms.entity.TExamResultDetail;
 import jp.co.sss.lms.form.ExamQuestionForm;
-import jp.co.sss.lms.mapper.MExamMapper;
-import jp.co.sss.lms.mapper.MQuestionMapper;
+import jp.co.sss.lms.form.ExamResultSearchForm;
+import jp.co.sss.lms.mapper.TExamItemStatsMapper;
 import jp.co.sss.lms.mapper.TExamResultDetailMapper;
 import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.mapper.TExamSectionStatsMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamAttemptUtil;
+import jp.co.sss.lms.util.ExamAttemptUtil.ExamAttempt;
+import jp.co.sss.lms.util.ExamDefinitionUtil;
+import jp.co.sss.lms.util.ExamDefinitionUtil.ExamDefinition;
+import jp.co.sss.lms.util.ExamResultDetailUtil;
+import jp.co.sss.lms.util.ExamScoringUtil;
+import jp.co.sss.lms.util.ExamScoringUtil.ExamScore;
 
 /**
  * 試験情報サービス
@@ -34,14 +49,24 @@ public class ExamService {
 	@Autowired
 	private TExamResultMapper tExamResultMapper;
 	@Autowired
-	private MExamMapper mExamMapper;
-	@Autowired
 	private TExamResultDetailMapper tExamResultDetailMapper;
 	@Autowired
-	private MQuestionMapper mQuestionMapper;
+	private TExamSectionStatsMapper tExamSectionStatsMapper;
+	@Autowired
+	private TExamItemStatsMapper tExamItemStatsMapper;
+	@Autowired
+	private ExamDefinitionUtil examDefinitionUtil;
+	@Autowired
+	private ExamResultDetailUtil examResultDetailUtil;
+	@Autowired
+	private ExamAttemptUtil examAttemptUtil;
 	@Autowired
 	private LoginUserDto loginUserDto;
 
+	/** 試験結果一覧のページあたりの件数 */
+	@Value("${setting.exam.resultList.pageSize}")
+	private int resultListPageSize;
+
 	/**
 	 * 試験詳細情報を取得
 	 * 
@@ -66,70 +91,68 @@ public class ExamService {
 	 */
 	public ExamResultDetailDto getExamResultDetail(Integer examResultId) {
 
-		// 試験結果詳細を取得
-		ExamResultDetailDto examResultDetailDto = tExamResultMapper
-				.getExamResultDetail(examResultId, Constants.DB_FLG_FALSE);
-
-		// 試験結果詳細を基に試験結果詳細DTO．問題DTOリスト．回答リストを設定
-		for (QuestionDto questionDto : examResultDetailDto.getQuestionDtoList()) {
-			List<String> answerList = new LinkedList<>();
-			answerList.add(questionDto.getChoice1());
-			answerList.add(questionDto.getChoice2());
-			answerList.add(questionDto.getChoice3());
-			answerList.add(questionDto.getChoice4());
-			questionDto.setAnswerList(answerList);
-		}
-
-		return examResultDetailDto;
-
+		// 試験結果詳細を取得（回答リスト設定済み、登録後は変更されないため保持したものを共有）
+		return examResultDetailUtil.getExamResultDetail(examResultId);
 	}
 
+
 	/**
-	 * 試験問題画面フォームの設定
+	 * 試験問題画面フォームの設定<br>
+	 * 回答と経過時間は受験中試験から設定する（画面から送信された回答は受験中試験へ保存してから設定する）
 	 * 
 	 * @param examQuestionForm
 	 */
 	public void setExamQuestionForm(ExamQuestionForm examQuestionForm) {
-		// 試験問題情報を取得
-		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
+		// 試験問題情報を取得（回答リスト設定済みの試験定義から複製）
+		ExamDefinition examDefinition = examDefinitionUtil
+				.getExamDefinition(examQuestionForm.getExamId());
+		ExamQuestionDto examQuestionDto = examDefinition.copyExamQuestionDto();
 		BeanUtils.copyProperties(examQuestionDto, examQuestionForm);
-		// 試験問題情報を基に試験問題DTO．問題DTOリスト．回答リストを設定
-		for (QuestionDto questionDto : examQuestionForm.getQuestionDtoList()) {
-			List<String> answerList = new LinkedList<>();
-			answerList.add(questionDto.getChoice1());
-			answerList.add(questionDto.getChoice2());
-			answerList.add(questionDto.getChoice3());
-			answerList.add(questionDto.getChoice4());
-			questionDto.setAnswerList(answerList);
-		}
-		// 経過時間の初期化
-		if (examQuestionForm.getTime() == null) {
-			examQuestionForm.setTime(0);
-		}
-		// 回答の再設定
-		int questionCount = examQuestionDto.getQuestionDtoList().size();
-		Short[] answerArray = new Short[questionCount];
-		Short[] userAnswer = examQuestionForm.getAnswer();
-		if (userAnswer != null) {
-			for (int i = 0; i < userAnswer.length; i++) {
-				answerArray[i] = userAnswer[i];
-			}
+		// 受験中試験を取得（未開始の場合は開始）
+		ExamAttempt examAttempt = examAttemptUtil.getOrStart(loginUserDto.getLmsUserId(),
+				examQuestionForm.getExamSectionId(), examQuestionForm.getExamId(),
+				examDefinition.getQuestionCount(), examDefinition.getLimitTime());
+		examAttempt.setAnswer(examQuestionForm.getAnswer());
+		// 回答・経過時間の再設定
+		examQuestionForm.setAnswer(examAttempt.getAnswer());
+		examQuestionForm.setTime(examAttempt.getElapsedTime());
+	}
+
+	/**
+	 * 試験回答の自動保存
+	 * 
+	 * @param examSectionId
+	 * @param index         問題の添字
+	 * @param reply         回答（1～4、未回答は0）
+	 * @return 試験回答自動保存DTO（受験中試験が無い場合は保存結果false）
+	 */
+	public ExamAutosaveDto saveAnswer(Integer examSectionId, Integer index, Short reply) {
+		ExamAutosaveDto examAutosaveDto = new ExamAutosaveDto();
+		ExamAttempt examAttempt = examAttemptUtil.get(loginUserDto.getLmsUserId(), examSectionId);
+		if (examAttempt == null || index == null) {
+			examAutosaveDto.setResult(false);
+			return examAutosaveDto;
 		}
-		examQuestionForm.setAnswer(answerArray);
+		examAutosaveDto.setResult(examAttempt.setReply(index,
+				(reply == null) ? ExamScoringUtil.NO_REPLY : reply));
+		examAutosaveDto.setTime(examAttempt.getElapsedTime());
+		return examAutosaveDto;
 	}
 
 	/**
-	 * 試験結果登録
+	 * 試験結果登録<br>
+	 * 試験結果と試験結果詳細を1トランザクションで登録する
 	 * 
 	 * @param examQuestionForm
 	 * @return examResultId
 	 */
+	@Transactional
 	public Integer insert(ExamQuestionForm examQuestionForm) {
 
-		// 試験IDに紐づく試験問題リストを取得
-		List<MQuestion> mQuestionList = mQuestionMapper.findByExamId(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
+		// 試験IDに紐づく試験定義（問題ID・正答）を取得
+		ExamDefinition examDefinition = examDefinitionUtil
+				.getExamDefinition(examQuestionForm.getExamId());
+		int questionCount = examDefinition.getQuestionCount();
 
 		// 現在日時情報
 		Date now = new Date();
@@ -137,29 +160,30 @@ public class ExamService {
 		// 試験結果エンティティを生成
 		TExamResult tExamResult = new TExamResult();
 
-		// 得点設定
-		Short score = 0;
-		Short[] answerArray = examQuestionForm.getAnswer();
-		for (int i = 0; i < answerArray.length; i++) {
-			if (answerArray[i] != null && answerArray[i] == mQuestionList.get(i).getAnswerNum()) {
-				score++;
-			}
+		// 受験中試験の回答・経過時間を使用
+		// （受験中試験が無い場合は画面から送信された回答を使用し、経過時間は制限時間とする）
+		ExamAttempt examAttempt = examAttemptUtil.get(loginUserDto.getLmsUserId(),
+				examQuestionForm.getExamSectionId());
+		byte[] replies;
+		Integer time;
+		if (examAttempt != null && examAttempt.getQuestionCount() == questionCount) {
+			examAttempt.setAnswer(examQuestionForm.getAnswer());
+			replies = examAttempt.getReplies();
+			time = examAttempt.getElapsedTime();
+		} else {
+			examAttempt = null;
+			replies = ExamScoringUtil.toReplies(examQuestionForm.getAnswer(), questionCount);
+			time = (int) TimeUnit.MINUTES.toMillis(examDefinition.getLimitTime());
 		}
 
-		// 試験結果件数取得
-		Integer examCount = tExamResultMapper.getExamCount(examQuestionForm.getExamSectionId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
+		// 得点設定（未回答は0として採点・登録する）
+		ExamScore examScore = examDefinition.score(replies);
 
 		// 試験結果の設定
 		tExamResult.setExamSectionId(examQuestionForm.getExamSectionId());
 		tExamResult.setLmsUserId(loginUserDto.getLmsUserId());
-		tExamResult.setScore(score);
-		tExamResult.setTime(examQuestionForm.getTime());
-		if (examCount == 0) {
-			tExamResult.setMarkFlg(Constants.DB_FLG_TRUE);
-		} else {
-			tExamResult.setMarkFlg(Constants.DB_FLG_FALSE);
-		}
+		tExamResult.setScore((short) examScore.getScore());
+		tExamResult.setTime(time);
 		tExamResult.setAccountId(loginUserDto.getAccountId());
 		tExamResult.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tExamResult.setFirstCreateUser(loginUserDto.getLmsUserId());
@@ -167,34 +191,133 @@ public class ExamService {
 		tExamResult.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tExamResult.setLastModifiedDate(now);
 
-		// 試験結果へ登録
-		tExamResultMapper.insert(tExamResult);
+		// 試験結果へ登録（採点対象の試験結果が無い場合のみ採点対象とする）
+		TExamResult inserted = tExamResultMapper.insertMarkingFirst(tExamResult);
+		tExamResult.setExamResultId(inserted.getExamResultId());
+		tExamResult.setMarkFlg(inserted.getMarkFlg());
+		// 採点対象の場合は試験統計へ加算
+		if (tExamResult.getMarkFlg() == Constants.DB_FLG_TRUE) {
+			tExamSectionStatsMapper.addScore(tExamResult.getExamSectionId(),
+					tExamResult.getScore(), now);
+		}
 
 		// 試験結果詳細登録
-		for (int j = 0; j < mQuestionList.size(); j++) {
+		List<TExamResultDetail> tExamResultDetailList = new ArrayList<>(questionCount);
+		for (int j = 0; j < questionCount; j++) {
 			// 試験結果詳細を生成
 			TExamResultDetail tExamResultDetail = new TExamResultDetail();
 			tExamResultDetail.setExamResultId(tExamResult.getExamResultId());
 			tExamResultDetail.setLmsUserId(loginUserDto.getLmsUserId());
-			tExamResultDetail.setQuestionId(mQuestionList.get(j).getQuestionId());
-			Short reply = 0;
-			try {
-				reply = examQuestionForm.getAnswer()[j];
-			} catch (Exception e) {
-				reply = 0;
-			}
-			tExamResultDetail.setReply(reply);
+			tExamResultDetail.setQuestionId(examDefinition.getQuestionId(j));
+			tExamResultDetail.setReply((short) replies[j]);
 			tExamResultDetail.setAccountId(loginUserDto.getAccountId());
 			tExamResultDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
 			tExamResultDetail.setFirstCreateUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setFirstCreateDate(now);
 			tExamResultDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setLastModifiedDate(now);
-			// 試験結果詳細へ登録
-			tExamResultDetailMapper.insert(tExamResultDetail);
+			tExamResultDetailList.add(tExamResultDetail);
+		}
+		// 試験結果詳細へ一括登録
+		if (!tExamResultDetailList.isEmpty()) {
+			tExamResultDetailMapper.insertList(tExamResultDetailList);
+		}
+		// 受験中試験の終了（コミット後）
+		if (examAttempt != null) {
+			finishExamAttempt(examQuestionForm.getExamSectionId(), examAttempt);
 		}
 
 		return tExamResult.getExamResultId();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 試験結果一覧の取得<br>
+	 * 試験・セクション紐づけID＋試験結果IDのキーセットで1ページ分を取得する
+	 * 
+	 * @param examResultSearchForm
+	 * @return 試験結果一覧DTOリスト（最大でページあたりの件数分）
+	 */
+	public List<ExamResultListDto> getExamResultList(ExamResultSearchForm examResultSearchForm) {
+		return tExamResultMapper.getExamResultList(examResultSearchForm, resultListPageSize,
+				Constants.DB_FLG_FALSE);
+	}
+
+	/**
+	 * 試験結果一覧の次ページ有無
+	 * 
+	 * @param examResultListDtoList
+	 * @return 次ページが存在する可能性がある場合true
+	 */
+	public boolean hasNextExamResultList(List<ExamResultListDto> examResultListDtoList) {
+		return examResultListDtoList.size() >= resultListPageSize;
+	}
+
+	/**
+	 * 試験結果一括削除（論理削除）<br>
+	 * 試験結果・試験結果詳細をそれぞれ1回の更新で削除し、試験統計・試験問題分析の集計値を同一トランザクションで補正する
+	 * 
+	 * @param examResultIdList
+	 * @return 削除件数
+	 */
+	@Transactional
+	public int deleteExamResultList(List<Integer> examResultIdList) {
+		if (examResultIdList == null || examResultIdList.isEmpty()) {
+			return 0;
+		}
+		Date now = new Date();
+		// 試験問題分析の集計処理と競合しないよう、処理済み試験結果IDをロック
+		Integer lastExamResultId = tExamItemStatsMapper.getLastExamResultIdForUpdate();
+		// 試験結果の論理削除（未削除だったもののみ返却される）
+		List<TExamResult> deletedList = tExamResultMapper.deleteByExamResultIdList(
+				examResultIdList, loginUserDto.getLmsUserId(), now);
+		if (deletedList.isEmpty()) {
+			return 0;
+		}
+		List<Integer> deletedIdList = new ArrayList<>(deletedList.size());
+		Set<Integer> examSectionIdSet = new LinkedHashSet<>();
+		for (TExamResult tExamResult : deletedList) {
+			deletedIdList.add(tExamResult.getExamResultId());
+			if (tExamResult.getMarkFlg() == Constants.DB_FLG_TRUE) {
+				examSectionIdSet.add(tExamResult.getExamSectionId());
+			}
+		}
+		// 試験問題分析の減算（試験結果詳細の削除前に行う）
+		if (lastExamResultId != null && !examSectionIdSet.isEmpty()) {
+			tExamItemStatsMapper.subtractStats(deletedIdList, lastExamResultId, now,
+					Constants.DB_FLG_FALSE);
+		}
+		// 試験結果詳細の論理削除
+		tExamResultDetailMapper.deleteByExamResultIdList(deletedIdList,
+				loginUserDto.getLmsUserId(), now);
+		// 試験統計の再集計
+		if (!examSectionIdSet.isEmpty()) {
+			tExamSectionStatsMapper.refresh(new ArrayList<>(examSectionIdSet), now,
+					Constants.DB_FLG_FALSE);
+		}
+		// 保持している試験結果詳細の破棄（コミット後）
+		examResultDetailUtil.invalidate(deletedIdList);
+		return deletedList.size();
+	}
+
+	/**
+	 * 受験中試験の終了<br>
+	 * トランザクション中の場合はコミット後に終了する（ロールバックした場合は再送信できるよう残す）
+	 * 
+	 * @param examSectionId
+	 * @param examAttempt
+	 */
+	private void finishExamAttempt(Integer examSectionId, ExamAttempt examAttempt) {
+		Integer lmsUserId = loginUserDto.getLmsUserId();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					examAttemptUtil.finish(lmsUserId, examSectionId, examAttempt);
+				}
+			});
+		} else {
+			examAttemptUtil.finish(lmsUserId, examSectionId, examAttempt);
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jp.co.sss.lms.dto.ExamDetailDto;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamDefinitionUtil;
+import jp.co.sss.lms.util.ExamDefinitionUtil.ExamDefinition;
+
+/**
+ * 試験事前読込サービス<br>
+ * 公開日時が近づいた試験の試験定義（問題・正答・問題数）をメモリ上に読み込み、
+ * 試験開始画面の試験詳細を1回取得してデータベース側のキャッシュにも載せておく。
+ * 公開直後の受験開始が集中した際に、最初の受験者の要求で読込が発生しないようにする。
+ * 
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamWarmUpService {
+
+	@Autowired
+	private MExamMapper mExamMapper;
+	@Autowired
+	private TExamResultMapper tExamResultMapper;
+	@Autowired
+	private ExamDefinitionUtil examDefinitionUtil;
+
+	/** 公開日時の何分前から読み込むか */
+	@Value("${setting.exam.warmUp.leadMinute}")
+	private int leadMinute;
+
+	/** 読込済みの試験・セクション紐づけIDと読込時の公開日時 */
+	private final ConcurrentMap<Integer, Date> warmedMap = new ConcurrentHashMap<>();
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * 事前読込処理<br>
+	 * 公開日時が現在から指定分後までの試験のうち、未読込（または公開日時が変更された）のものを読み込む。
+	 * 
+	 * @return 読み込んだ試験の試験詳細DTOリスト
+	 */
+	@Scheduled(fixedDelayString = "${setting.exam.warmUp.delayMillis}")
+	public List<ExamDetailDto> warmUp() {
+		Date now = new Date();
+		// 公開済みとなった試験は読込済みから除く
+		warmedMap.values().removeIf(publicDate -> !publicDate.after(now));
+
+		Date publicDateTo = new Date(now.getTime() + TimeUnit.MINUTES.toMillis(leadMinute));
+		List<ExamDetailDto> upcomingList = mExamMapper.getUpcomingExamSectionList(now,
+				publicDateTo, Constants.DB_FLG_FALSE);
+		List<ExamDetailDto> warmedList = new ArrayList<>();
+		for (ExamDetailDto upcoming : upcomingList) {
+			if (upcoming.getPublicDate().equals(warmedMap.get(upcoming.getExamSectionId()))) {
+				continue;
+			}
+			// 試験定義（問題・正答・問題数）の読込
+			ExamDefinition examDefinition = examDefinitionUtil
+					.getExamDefinition(upcoming.getExamId());
+			if (examDefinition == null) {
+				continue;
+			}
+			// 試験開始画面の試験詳細（試験・試験統計）を1回取得
+			tExamResultMapper.getExamDetailDto(upcoming.getExamSectionId(), null,
+					Constants.DB_FLG_FALSE);
+			upcoming.setNumOfQuestion(examDefinition.getQuestionCount());
+			upcoming.setLimitTime(examDefinition.getLimitTime());
+			warmedMap.put(upcoming.getExamSectionId(), upcoming.getPublicDate());
+			warmedList.add(upcoming);
+			logger.info("試験事前読込 examSectionId=" + upcoming.getExamSectionId() + " examId="
+					+ upcoming.getExamId() + " examName=" + upcoming.getExamName()
+					+ " publicDate=" + upcoming.getPublicDate() + " numOfQuestion="
+					+ upcoming.getNumOfQuestion());
+		}
+		if (!warmedList.isEmpty()) {
+			logger.info("試験事前読込 " + warmedList.size() + "件 試験定義保持件数="
+					+ examDefinitionUtil.size());
+		}
+		return warmedList;
+	}
+
+}
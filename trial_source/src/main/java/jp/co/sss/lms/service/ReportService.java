@@ -1,14 +1,22 @@
 package jp.co.sss.lms.service;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jp.co.sss.lms.dto.DailyReportDetailDto;
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
@@ -21,16 +29,16 @@ import jp.co.sss.lms.entity.TDailyReportSubmit;
 import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
 import jp.co.sss.lms.entity.TIntelligibility;
 import jp.co.sss.lms.form.DailyReportSubmitForm;
-import jp.co.sss.lms.mapper.TCourseDailyReportMapper;
 import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
 import jp.co.sss.lms.mapper.TDailyReportSubmitMapper;
 import jp.co.sss.lms.mapper.TIntelligibilityMapper;
-import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DailyReportTemplateUtil;
 import jp.co.sss.lms.util.DateUtil;
 import jp.co.sss.lms.util.ExcelUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.WorkbookZipUtil;
 
 /**
  * レポート情報サービス
@@ -49,15 +57,17 @@ public class ReportService {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private TCourseDailyReportMapper tCourseDailyReportMapper;
-	@Autowired
-	private TSectionDailyReportMapper tSectionDailyReportMapper;
-	@Autowired
 	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
 	@Autowired
 	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
 	@Autowired
 	private TIntelligibilityMapper tIntelligibilityMapper;
+	@Autowired
+	private DailyReportTemplateUtil dailyReportTemplateUtil;
+	@Autowired
+	private WorkbookZipUtil workbookZipUtil;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	/**
 	 * レポート情報取得
@@ -68,24 +78,20 @@ public class ReportService {
 	 */
 	public void getDailyReport(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
-		// コースに紐づくレポート情報を取得
-		DailyReportDto dailyReportDto = tCourseDailyReportMapper.getDailyReportDto(
+		// 日報テンプレートを取得（コースに紐づくもの、無かった場合はセクションに紐づくもの）
+		DailyReportDto dailyReportDto = dailyReportTemplateUtil.getTemplate(
 				dailyReportSubmitForm.getDailyReportId(), loginUserDto.getCourseId(),
-				loginUserDto.getAccountId(), loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE,
-				dailyReportSubmitForm.getDate());
-		// 無かった場合にセクションに紐づく情報を取得
-		if (dailyReportDto == null) {
-			dailyReportDto = tSectionDailyReportMapper.getDailyReportDto(
-					dailyReportSubmitForm.getDailyReportId(), dailyReportSubmitForm.getSectionId(),
-					loginUserDto.getAccountId(), loginUserDto.getLmsUserId(),
-					Constants.DB_FLG_FALSE, dailyReportSubmitForm.getDate());
+				dailyReportSubmitForm.getSectionId(), loginUserDto.getAccountId());
+		// 提出内容を取得
+		DailyReportDto submitDto = null;
+		if (dailyReportSubmitForm.getDate() != null) {
+			submitDto = tDailyReportSubmitMapper.getDailyReportSubmitContent(
+					dailyReportDto.getDailyReportId(), loginUserDto.getLmsUserId(),
+					dailyReportSubmitForm.getDate());
 		}
 
 		// フォームに詰め替え
 		dailyReportSubmitForm.setDailyReportId(dailyReportDto.getDailyReportId());
-		if (dailyReportSubmitForm.getDate() == null) {
-			dailyReportSubmitForm.setDate(dailyReportDto.getDate());
-		}
 		dailyReportSubmitForm.setReportName(dailyReportDto.getReportName());
 		dailyReportSubmitForm.setIntelligibilityFlg(dailyReportDto.getIntelligibilityFlg());
 		if (dailyReportDto.getIntelligibilityFlg() != null
@@ -96,11 +102,12 @@ public class ReportService {
 			Short intelligibilityDtoListSize = dailyReportDto.getIntelligibilityFieldNum();
 			String[] intFieldNameArray = new String[intelligibilityDtoListSize];
 			Short[] intFieldValueArray = new Short[intelligibilityDtoListSize];
-			List<IntelligibilityDto> intelligibilityDtoList = dailyReportDto
-					.getIntelligibilityDtoList();
-			if (!(intelligibilityDtoList.size() == 1
-					&& intelligibilityDtoList.get(0).getIntelligibilityId() == null)) {
-				for (int i = 0; i < intelligibilityDtoList.size(); i++) {
+			if (submitDto != null) {
+				List<IntelligibilityDto> intelligibilityDtoList = tDailyReportSubmitMapper
+						.getDailyReportDownloadIntelligibilityList(
+								submitDto.getDailyReportSubmitId(), Constants.DB_FLG_FALSE);
+				for (int i = 0; i < intelligibilityDtoList.size()
+						&& i < intelligibilityDtoListSize; i++) {
 					intFieldNameArray[i] = intelligibilityDtoList.get(i).getFieldName();
 					intFieldValueArray[i] = intelligibilityDtoList.get(i).getFieldValue();
 				}
@@ -108,6 +115,13 @@ public class ReportService {
 			dailyReportSubmitForm.setIntFieldNameArray(intFieldNameArray);
 			dailyReportSubmitForm.setIntFieldValueArray(intFieldValueArray);
 		}
+		// 提出内容を項目番号で引き当てる
+		Map<Integer, String> contentMap = new HashMap<>();
+		if (submitDto != null) {
+			for (DailyReportDetailDto submitDetailDto : submitDto.getDailyReportDetailDtoList()) {
+				contentMap.put(submitDetailDto.getFieldNum(), submitDetailDto.getContent());
+			}
+		}
 		Integer dailyReportDetailDtoListSize = dailyReportDto.getDailyReportDetailDtoList().size();
 		String[] fieldNameArray = new String[dailyReportDetailDtoListSize];
 		Short[] requiredFlgArray = new Short[dailyReportDetailDtoListSize];
@@ -123,7 +137,7 @@ public class ReportService {
 			inputTypeArray[j] = dailyReportDetailDto.getInputType();
 			rangeFromArray[j] = dailyReportDetailDto.getRangeFrom();
 			rangeToArray[j] = dailyReportDetailDto.getRangeTo();
-			contentArray[j] = dailyReportDetailDto.getContent();
+			contentArray[j] = contentMap.get(dailyReportDetailDto.getFieldNum());
 		}
 		dailyReportSubmitForm.setFieldNameArray(fieldNameArray);
 		dailyReportSubmitForm.setRequiredFlgArray(requiredFlgArray);
@@ -134,11 +148,14 @@ public class ReportService {
 	}
 
 	/**
-	 * レポート登録
+	 * レポート登録<br>
+	 * 再提出の場合は登録済みの内容と項目番号で突き合わせ、変更のあった項目のみ反映する。
+	 * 日報提出・日報提出詳細・理解度をそれぞれ1文で反映し、1トランザクションで登録する。
 	 * 
 	 * @param form
 	 * @throws ParseException
 	 */
+	@Transactional
 	public void submit(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
 		Date today = new Date();
@@ -154,8 +171,9 @@ public class ReportService {
 		tDailyReportSubmit.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tDailyReportSubmit.setLastModifiedDate(today);
 
-		// 日報提出IDがnullの場合
-		if (dailyReportSubmitForm.getDailyReportSubmitId() == null) {
+		// 日報提出IDがnullの場合は新規提出、それ以外は再提出
+		boolean resubmit = dailyReportSubmitForm.getDailyReportSubmitId() != null;
+		if (!resubmit) {
 			tDailyReportSubmit.setFirstCreateUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmit.setFirstCreateDate(today);
 			tDailyReportSubmitMapper.insert(tDailyReportSubmit);
@@ -163,51 +181,52 @@ public class ReportService {
 			tDailyReportSubmit
 					.setDailyReportSubmitId(dailyReportSubmitForm.getDailyReportSubmitId());
 			tDailyReportSubmitMapper.update(tDailyReportSubmit);
-			// 日報提出詳細の削除
-			Integer countSubmitDetail = tDailyReportSubmitDetailMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countSubmitDetail > 0) {
-				tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
-			// 理解度の削除
-			Integer countIntelligibility = tIntelligibilityMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countIntelligibility > 0) {
-				tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
 		}
-		// レポート詳細登録
-		for (int i = 0; i < dailyReportSubmitForm.getContentArray().length; i++) {
+		// レポート詳細登録（差分のみ）
+		List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList = new ArrayList<>();
+		String[] contentArray = dailyReportSubmitForm.getContentArray();
+		for (int i = 0; contentArray != null && i < contentArray.length; i++) {
 			TDailyReportSubmitDetail tDailyReportSubmitDetail = new TDailyReportSubmitDetail();
 			tDailyReportSubmitDetail
 					.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
 			tDailyReportSubmitDetail.setFieldNum(i + 1);
-			tDailyReportSubmitDetail.setContent(dailyReportSubmitForm.getContentArray()[i]);
+			tDailyReportSubmitDetail.setContent(contentArray[i]);
 			tDailyReportSubmitDetail.setAccountId(tDailyReportSubmit.getAccountId());
 			tDailyReportSubmitDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
 			tDailyReportSubmitDetail.setFirstCreateUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmitDetail.setFirstCreateDate(today);
 			tDailyReportSubmitDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmitDetail.setLastModifiedDate(today);
-			tDailyReportSubmitDetailMapper.insert(tDailyReportSubmitDetail);
+			tDailyReportSubmitDetailList.add(tDailyReportSubmitDetail);
 		}
-		// 理解度登録
-		if (dailyReportSubmitForm.getIntFieldNameArray() != null) {
-			for (int j = 0; j < dailyReportSubmitForm.getIntFieldNameArray().length; j++) {
-				TIntelligibility tIntelligibility = new TIntelligibility();
-				tIntelligibility
-						.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-				tIntelligibility.setFieldNum(j + 1);
-				tIntelligibility.setFieldName(dailyReportSubmitForm.getIntFieldNameArray()[j]);
-				tIntelligibility.setFieldValue(dailyReportSubmitForm.getIntFieldValueArray()[j]);
-				tIntelligibility.setAccountId(tDailyReportSubmit.getAccountId());
-				tIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
-				tIntelligibility.setFirstCreateUser(loginUserDto.getLmsUserId());
-				tIntelligibility.setFirstCreateDate(today);
-				tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
-				tIntelligibility.setLastModifiedDate(today);
-				tIntelligibilityMapper.insert(tIntelligibility);
-			}
+		if (!tDailyReportSubmitDetailList.isEmpty()) {
+			tDailyReportSubmitDetailMapper.merge(tDailyReportSubmit.getDailyReportSubmitId(),
+					tDailyReportSubmitDetailList);
+		} else if (resubmit) {
+			tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
+		}
+		// 理解度登録（差分のみ）
+		List<TIntelligibility> tIntelligibilityList = new ArrayList<>();
+		String[] intFieldNameArray = dailyReportSubmitForm.getIntFieldNameArray();
+		for (int j = 0; intFieldNameArray != null && j < intFieldNameArray.length; j++) {
+			TIntelligibility tIntelligibility = new TIntelligibility();
+			tIntelligibility.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
+			tIntelligibility.setFieldNum(j + 1);
+			tIntelligibility.setFieldName(intFieldNameArray[j]);
+			tIntelligibility.setFieldValue(dailyReportSubmitForm.getIntFieldValueArray()[j]);
+			tIntelligibility.setAccountId(tDailyReportSubmit.getAccountId());
+			tIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
+			tIntelligibility.setFirstCreateUser(loginUserDto.getLmsUserId());
+			tIntelligibility.setFirstCreateDate(today);
+			tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
+			tIntelligibility.setLastModifiedDate(today);
+			tIntelligibilityList.add(tIntelligibility);
+		}
+		if (!tIntelligibilityList.isEmpty()) {
+			tIntelligibilityMapper.merge(tDailyReportSubmit.getDailyReportSubmitId(),
+					tIntelligibilityList);
+		} else if (resubmit) {
+			tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
 		}
 	}
 
@@ -221,8 +240,47 @@ public class ReportService {
 	 */
 	public void download(Integer dailyReportId, Integer dailyReportSubmitId,
 			HttpServletResponse response) throws IOException {
+		long startTime = System.currentTimeMillis();
 		WorkbookDto workbookDto = getWorkbookDto(dailyReportId, dailyReportSubmitId);
 		ExcelUtil.downloadBook(workbookDto, response);
+		logger.info("レポートダウンロード dailyReportSubmitId=" + dailyReportSubmitId + " "
+				+ (System.currentTimeMillis() - startTime) + "ms " + getTemplateCacheStats());
+	}
+
+	/**
+	 * レポート一括ダウンロード<br>
+	 * レポートごとのワークブック作成を並列に行い、作成できたものから順にZIPファイルへ書き込む。
+	 * 
+	 * @param dailyReportIdList
+	 * @param dailyReportSubmitIdList
+	 * @param out
+	 * @throws IOException
+	 */
+	public void downloadList(String[] dailyReportIdList, String[] dailyReportSubmitIdList,
+			OutputStream out) throws IOException {
+		List<Callable<WorkbookDto>> workbookLoaderList = new ArrayList<>();
+		if (dailyReportIdList != null && dailyReportSubmitIdList != null) {
+			for (int i = 0; i < Math.min(dailyReportIdList.length,
+					dailyReportSubmitIdList.length); i++) {
+				Integer dailyReportId = Integer.valueOf(dailyReportIdList[i]);
+				Integer dailyReportSubmitId = Integer.valueOf(dailyReportSubmitIdList[i]);
+				workbookLoaderList.add(() -> getWorkbookDto(dailyReportId, dailyReportSubmitId));
+			}
+		}
+		long startTime = System.currentTimeMillis();
+		workbookZipUtil.writeBooksInZip(workbookLoaderList, out);
+		logger.info("レポート一括ダウンロード " + workbookLoaderList.size() + "件 "
+				+ (System.currentTimeMillis() - startTime) + "ms " + getTemplateCacheStats());
+	}
+
+	/**
+	 * テンプレートキャッシュの累計件数（ログ出力用）
+	 * 
+	 * @return テンプレートキャッシュのヒット・ミス件数
+	 */
+	private String getTemplateCacheStats() {
+		return "テンプレートキャッシュ ヒット=" + ExcelUtil.getTemplateCacheHitCount() + "件 ミス="
+				+ ExcelUtil.getTemplateCacheMissCount() + "件";
 	}
 
 	/**
@@ -236,10 +294,24 @@ public class ReportService {
 	private WorkbookDto getWorkbookDto(Integer dailyReportId, Integer dailyReportSubmitId)
 			throws IOException {
 
-		// レポートダウンロード情報取得
+		// レポートダウンロード情報取得（明細は件数が掛け合わさらないよう個別に取得）
+		long startTime = System.currentTimeMillis();
 		DailyReportDownloadDto dailyReportDownloadDto = tDailyReportSubmitMapper
 				.getDailyReportDownloadDto(dailyReportSubmitId, dailyReportId,
 						Constants.DB_FLG_FALSE);
+		dailyReportDownloadDto.setDailyReportDetailDtoList(tDailyReportSubmitMapper
+				.getDailyReportDownloadDetailList(dailyReportSubmitId, dailyReportId,
+						Constants.DB_FLG_FALSE));
+		dailyReportDownloadDto.setIntelligibilityDtoList(tDailyReportSubmitMapper
+				.getDailyReportDownloadIntelligibilityList(dailyReportSubmitId,
+						Constants.DB_FLG_FALSE));
+		dailyReportDownloadDto.setDailyReportFbDtoList(tDailyReportSubmitMapper
+				.getDailyReportDownloadFbList(dailyReportSubmitId, Constants.DB_FLG_FALSE));
+		logger.info("レポートダウンロード情報取得 dailyReportSubmitId=" + dailyReportSubmitId
+				+ " 詳細=" + dailyReportDownloadDto.getDailyReportDetailDtoList().size()
+				+ "件 理解度=" + dailyReportDownloadDto.getIntelligibilityDtoList().size()
+				+ "件 フィードバック=" + dailyReportDownloadDto.getDailyReportFbDtoList().size()
+				+ "件 " + (System.currentTimeMillis() - startTime) + "ms");
 
 		// テンプレートファイルのパスを設定
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
@@ -289,22 +361,19 @@ public class ReportService {
 			}
 		}
 
-		if (dailyReportDownloadDto.getDailyReportFbDtoList() != null) {
-			if (dailyReportDownloadDto.getDailyReportFbDtoList().size() > 1) {
-				for (int i = 1; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
-					excelUtil.sheetCopy("フィードバックコメント", 6, 8, i);
-				}
-			}
-			for (int i = 0; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
-				DailyReportFbDto dailyReportFbDto = dailyReportDownloadDto.getDailyReportFbDtoList()
-						.get(i);
+		List<DailyReportFbDto> dailyReportFbDtoList = dailyReportDownloadDto
+				.getDailyReportFbDtoList();
+		if (dailyReportFbDtoList != null) {
+			// フィードバック数分のコメント欄を複製しながら値を設定する
+			excelUtil.repeatRows("フィードバックコメント", 6, 8, dailyReportFbDtoList.size(), i -> {
+				DailyReportFbDto dailyReportFbDto = dailyReportFbDtoList.get(i);
 				// 指定位置にフィードバックしたユーザを設定
 				excelUtil.setVal("フィードバックコメント", 6 + (i * 2), 0, dailyReportFbDto.getUserName());
 				// 指定位置にコメントを入力した日付を設定
 				excelUtil.setVal("フィードバックコメント", 6 + (i * 2), 17, dailyReportFbDto.getDate());
 				// 指定位置に入力内容を設定
 				excelUtil.setVal("フィードバックコメント", 7 + (i * 2), 10, dailyReportFbDto.getContent());
-			}
+			});
 		}
 
 		WorkbookDto workbookDto = new WorkbookDto();
@@ -1,27 +1,52 @@
 package jp.co.sss.lms.service;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import jp.co.sss.lms.dto.AttendanceBulkRegistDto;
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.AttendanceRosterDto;
 import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.UserAttendanceDto;
+import jp.co.sss.lms.entity.MLmsUser;
+import jp.co.sss.lms.entity.MSection;
 import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.entity.TStudentAttendanceSummary;
 import jp.co.sss.lms.enums.AttendanceStatusEnum;
 import jp.co.sss.lms.form.AttendanceForm;
 import jp.co.sss.lms.form.DailyAttendanceForm;
+import jp.co.sss.lms.mapper.MLmsUserMapper;
 import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.mapper.TStudentAttendanceSummaryMapper;
+import jp.co.sss.lms.util.AttendanceNotEnterUtil;
 import jp.co.sss.lms.util.AttendanceUtil;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.CourseCalendarUtil;
 import jp.co.sss.lms.util.DateUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.SheetStreamReader;
 import jp.co.sss.lms.util.TrainingTime;
 
 /**
@@ -43,7 +68,25 @@ public class StudentAttendanceService {
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
+	private CourseCalendarUtil courseCalendarUtil;
+	@Autowired
+	private AttendanceNotEnterUtil attendanceNotEnterUtil;
+	@Autowired
 	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private TStudentAttendanceSummaryMapper tStudentAttendanceSummaryMapper;
+	@Autowired
+	private MLmsUserMapper mLmsUserMapper;
+
+	/** コース勤怠一覧の1ページあたりの受講生数 */
+	@Value("${setting.attendance.roster.pageSize}")
+	private int rosterPageSize;
+	/** 勤怠一括登録の1回あたりの登録件数 */
+	@Value("${setting.attendance.import.chunkSize}")
+	private int importChunkSize;
+	/** 勤怠一括登録のCSV文字コード */
+	@Value("${setting.attendance.import.csvCharset}")
+	private String importCsvCharset;
 
 	/**
 	 * 勤怠一覧情報取得
@@ -55,9 +98,38 @@ public class StudentAttendanceService {
 	public List<AttendanceManagementDto> getAttendanceManagement(Integer courseId,
 			Integer lmsUserId) {
 
-		// 勤怠管理リストの取得
-		List<AttendanceManagementDto> attendanceManagementDtoList = tStudentAttendanceMapper
-				.getAttendanceManagement(courseId, lmsUserId, Constants.DB_FLG_FALSE);
+		// 勤怠情報（受講生入力）を研修日で索引化
+		Map<Long, TStudentAttendance> tStudentAttendanceMap = new HashMap<>();
+		for (TStudentAttendance entity : tStudentAttendanceMapper.findByLmsUserId(lmsUserId,
+				Constants.DB_FLG_FALSE)) {
+			tStudentAttendanceMap.put(courseCalendarUtil.toEpochDay(entity.getTrainingDate()),
+					entity);
+		}
+
+		// 勤怠管理リストの取得（コースの研修日カレンダーと勤怠情報を突合）
+		long today = courseCalendarUtil.toEpochDay(new Date());
+		List<AttendanceManagementDto> attendanceManagementDtoList = new ArrayList<>();
+		for (MSection mSection : courseCalendarUtil.getSectionList(courseId)) {
+			if (mSection.getDate() == null) {
+				continue;
+			}
+			long epochDay = courseCalendarUtil.toEpochDay(mSection.getDate());
+			AttendanceManagementDto dto = new AttendanceManagementDto();
+			dto.setIsToday(epochDay == today);
+			dto.setSectionName(mSection.getSectionName());
+			dto.setTrainingDate(mSection.getDate());
+			TStudentAttendance tStudentAttendance = tStudentAttendanceMap.get(epochDay);
+			if (tStudentAttendance != null) {
+				dto.setStudentAttendanceId(tStudentAttendance.getStudentAttendanceId());
+				dto.setLmsUserId(String.valueOf(tStudentAttendance.getLmsUserId()));
+				dto.setTrainingStartTime(tStudentAttendance.getTrainingStartTime());
+				dto.setTrainingEndTime(tStudentAttendance.getTrainingEndTime());
+				dto.setStatus(tStudentAttendance.getStatus());
+				dto.setNote(tStudentAttendance.getNote());
+				dto.setBlankTime(tStudentAttendance.getBlankTime());
+			}
+			attendanceManagementDtoList.add(dto);
+		}
 		for (AttendanceManagementDto dto : attendanceManagementDtoList) {
 			// 中抜け時間を設定
 			if (dto.getBlankTime() != null) {
@@ -75,7 +147,59 @@ public class StudentAttendanceService {
 	}
 
 	/**
-	 * 出退勤更新前のチェック
+	 * コース勤怠一覧の取得<br>
+	 * 受講生×研修日を1回のSQLで取得し、1件ずつ受講生単位にまとめる。
+	 * 
+	 * @param courseId
+	 * @param companyId     企業ID（企業担当者の場合のみ指定）
+	 * @param lastLmsUserId 前ページ最後のLMSユーザーID（先頭ページの場合はnull）
+	 * @return コース勤怠一覧（最大でページあたりの受講生数分）
+	 */
+	@Transactional(readOnly = true)
+	public List<AttendanceRosterDto> getAttendanceRoster(Integer courseId, Integer companyId,
+			Integer lastLmsUserId) {
+		List<AttendanceRosterDto> attendanceRosterDtoList = new ArrayList<>();
+		tStudentAttendanceMapper.getAttendanceRoster(courseId, companyId, lastLmsUserId,
+				rosterPageSize, Constants.DB_FLG_FALSE, resultContext -> {
+					UserAttendanceDto dto = resultContext.getResultObject();
+					// 受講生が切り替わった場合は新しい行を追加（LMSユーザーID順に取得している）
+					AttendanceRosterDto attendanceRosterDto = attendanceRosterDtoList.isEmpty() ? null
+							: attendanceRosterDtoList.get(attendanceRosterDtoList.size() - 1);
+					if (attendanceRosterDto == null
+							|| !attendanceRosterDto.getLmsUserId().equals(dto.getLmsUserId())) {
+						attendanceRosterDto = new AttendanceRosterDto();
+						attendanceRosterDto.setLmsUserId(dto.getLmsUserId());
+						attendanceRosterDto.setUserName(dto.getUserName());
+						attendanceRosterDto.setAttendanceList(new ArrayList<>());
+						attendanceRosterDtoList.add(attendanceRosterDto);
+					}
+					// 中抜け時間を設定
+					if (dto.getBlankTime() != null) {
+						dto.setBlankTimeValue(TrainingTime.formatMinutes(dto.getBlankTime()));
+					}
+					// 遅刻早退区分判定
+					AttendanceStatusEnum statusEnum = AttendanceStatusEnum.getEnum(dto.getStatus());
+					if (statusEnum != null) {
+						dto.setStatusDispName(statusEnum.name);
+					}
+					attendanceRosterDto.getAttendanceList().add(dto);
+				});
+		return attendanceRosterDtoList;
+	}
+
+	/**
+	 * コース勤怠一覧に次ページがあるか判定
+	 * 
+	 * @param attendanceRosterDtoList
+	 * @return 判定結果
+	 */
+	public boolean hasNextAttendanceRoster(List<AttendanceRosterDto> attendanceRosterDtoList) {
+		return attendanceRosterDtoList.size() >= rosterPageSize;
+	}
+
+	/**
+	 * 出退勤更新前のチェック<br>
+	 * 勤怠情報の登録状況に関するチェックは打刻処理の更新文で行う
 	 * 
 	 * @param attendanceType
 	 * @return エラーメッセージ
@@ -90,45 +214,16 @@ public class StudentAttendanceService {
 		if (!attendanceUtil.isWorkDay(loginUserDto.getCourseId(), trainingDate)) {
 			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_NOTWORKDAY);
 		}
-		// 登録情報チェック
-		TStudentAttendance tStudentAttendance = tStudentAttendanceMapper
-				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
-						Constants.DB_FLG_FALSE);
-		switch (attendanceType) {
-		case Constants.CODE_VAL_ATWORK:
-			if (tStudentAttendance != null
-					&& !tStudentAttendance.getTrainingStartTime().equals("")) {
-				// 本日の勤怠情報は既に入力されています。直接編集してください。
-				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
-			}
-			break;
-		case Constants.CODE_VAL_LEAVING:
-			if (tStudentAttendance == null
-					|| tStudentAttendance.getTrainingStartTime().equals("")) {
-				// 出勤情報がないため退勤情報を入力出来ません。
-				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTY);
-			}
-			if (!tStudentAttendance.getTrainingEndTime().equals("")) {
-				// 本日の勤怠情報は既に入力されています。直接編集してください。
-				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
-			}
-			TrainingTime trainingStartTime = new TrainingTime(
-					tStudentAttendance.getTrainingStartTime());
-			TrainingTime trainingEndTime = new TrainingTime();
-			if (trainingStartTime.compareTo(trainingEndTime) > 0) {
-				// 退勤時刻は出勤時刻より後でなければいけません。
-				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGE);
-			}
-			break;
-		}
 		return null;
 	}
 
 	/**
-	 * 出勤ボタン処理
+	 * 出勤ボタン処理<br>
+	 * 登録済みチェックと登録・更新を1回のSQLで行う
 	 * 
-	 * @return 完了メッセージ
+	 * @return エラーメッセージ（正常終了時はnull）
 	 */
+	@Transactional
 	public String setPunchIn() {
 		// 当日日付
 		Date date = new Date();
@@ -139,70 +234,302 @@ public class StudentAttendanceService {
 		// 遅刻早退ステータス
 		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
 				null);
-		// 研修日の勤怠情報取得
-		TStudentAttendance tStudentAttendance = tStudentAttendanceMapper
-				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
-						Constants.DB_FLG_FALSE);
-		if (tStudentAttendance == null) {
-			// 登録処理
-			tStudentAttendance = new TStudentAttendance();
-			tStudentAttendance.setLmsUserId(loginUserDto.getLmsUserId());
-			tStudentAttendance.setTrainingDate(trainingDate);
-			tStudentAttendance.setTrainingStartTime(trainingStartTime.toString());
-			tStudentAttendance.setTrainingEndTime("");
-			tStudentAttendance.setStatus(attendanceStatusEnum.code);
-			tStudentAttendance.setNote("");
-			tStudentAttendance.setAccountId(loginUserDto.getAccountId());
-			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
-			tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
-			tStudentAttendance.setFirstCreateDate(date);
-			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
-			tStudentAttendance.setLastModifiedDate(date);
-			tStudentAttendance.setBlankTime(null);
-			tStudentAttendanceMapper.insert(tStudentAttendance);
-		} else {
-			// 更新処理
-			tStudentAttendance.setTrainingStartTime(trainingStartTime.toString());
-			tStudentAttendance.setStatus(attendanceStatusEnum.code);
-			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
-			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
-			tStudentAttendance.setLastModifiedDate(date);
-			tStudentAttendanceMapper.update(tStudentAttendance);
+		// 登録・更新処理
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setLmsUserId(loginUserDto.getLmsUserId());
+		tStudentAttendance.setTrainingDate(trainingDate);
+		tStudentAttendance.setTrainingStartTime(trainingStartTime.toString());
+		tStudentAttendance.setTrainingEndTime("");
+		tStudentAttendance.setStatus(attendanceStatusEnum.code);
+		tStudentAttendance.setNote("");
+		tStudentAttendance.setAccountId(loginUserDto.getAccountId());
+		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setFirstCreateDate(date);
+		tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setLastModifiedDate(date);
+		tStudentAttendance.setBlankTime(null);
+		Integer count = tStudentAttendanceMapper.punchIn(tStudentAttendance);
+		if (count == null || count == 0) {
+			// 本日の勤怠情報は既に入力されています。直接編集してください。
+			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
 		}
-		// 完了メッセージ
-		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+		// 勤怠集計の更新
+		tStudentAttendanceSummaryMapper.refresh(loginUserDto.getLmsUserId(), trainingDate, date,
+				Constants.DB_FLG_FALSE);
+		return null;
 	}
 
 	/**
-	 * 退勤ボタン処理
+	 * 退勤ボタン処理<br>
+	 * 出勤情報・登録済み・時刻範囲のチェックと更新を1回のSQLで行う
 	 * 
-	 * @return 完了メッセージ
+	 * @return エラーメッセージ（正常終了時はnull）
 	 */
+	@Transactional
 	public String setPunchOut() {
 		// 当日日付
 		Date date = new Date();
 		// 本日の研修日
 		Date trainingDate = attendanceUtil.getTrainingDate();
-		// 研修日の勤怠情報取得
-		TStudentAttendance tStudentAttendance = tStudentAttendanceMapper
-				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
-						Constants.DB_FLG_FALSE);
-		// 出退勤時刻
-		TrainingTime trainingStartTime = new TrainingTime(
-				tStudentAttendance.getTrainingStartTime());
+		// 現在の研修時刻
 		TrainingTime trainingEndTime = new TrainingTime();
-		// 遅刻早退ステータス
-		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
-				trainingEndTime);
-		// 更新処理
-		tStudentAttendance.setTrainingEndTime(trainingEndTime.toString());
-		tStudentAttendance.setStatus(attendanceStatusEnum.code);
+		// 更新処理（遅刻早退ステータスはSQL内で判定）
+		Integer result = tStudentAttendanceMapper.punchOut(loginUserDto.getLmsUserId(),
+				trainingDate, trainingEndTime.toString(), trainingEndTime.toMinutes(),
+				Constants.SSS_WORK_START_TIME.toMinutes(), Constants.SSS_WORK_END_TIME.toMinutes(),
+				loginUserDto.getLmsUserId(), date, Constants.DB_FLG_FALSE);
+		switch (result) {
+		case Constants.PUNCH_OUT_RESULT_SUCCESS:
+			// 勤怠集計の更新
+			tStudentAttendanceSummaryMapper.refresh(loginUserDto.getLmsUserId(), trainingDate,
+					date, Constants.DB_FLG_FALSE);
+			return null;
+		case Constants.PUNCH_OUT_RESULT_PUNCHINEMPTY:
+			// 出勤情報がないため退勤情報を入力出来ません。
+			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTY);
+		case Constants.PUNCH_OUT_RESULT_ALREADYEXISTS:
+			// 本日の勤怠情報は既に入力されています。直接編集してください。
+			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
+		default:
+			// 退勤時刻は出勤時刻より後でなければいけません。
+			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGE);
+		}
+	}
+
+	/**
+	 * 勤怠情報一括登録<br>
+	 * .xlsx/.csvを1行ずつ読み込んで検証し、一定件数ごとにまとめて登録・更新する。
+	 * 列構成：LMSユーザーID, 日付, 出勤時刻, 退勤時刻, 中抜け時間（分）, 備考（1行目は見出し）
+	 * 
+	 * @param courseId
+	 * @param file
+	 * @return 一括登録結果
+	 * @throws IOException
+	 */
+	@Transactional
+	public AttendanceBulkRegistDto bulkRegist(Integer courseId, MultipartFile file)
+			throws IOException {
+		long startNanos = System.nanoTime();
+		AttendanceBulkRegistDto attendanceBulkRegistDto = new AttendanceBulkRegistDto();
+		attendanceBulkRegistDto.setErrorList(new ArrayList<>());
+		String fileName = file.getOriginalFilename();
+		if (!SheetStreamReader.isSupported(fileName)) {
+			attendanceBulkRegistDto.getErrorList()
+					.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_BULK_FILETYPE));
+			return attendanceBulkRegistDto;
+		}
+		// コースの受講生（LMSユーザーID→企業アカウントID）
+		Map<Integer, Integer> accountIdMap = new HashMap<>();
+		for (MLmsUser mLmsUser : mLmsUserMapper.findStudentByCourseId(courseId,
+				Constants.DB_FLG_FALSE)) {
+			accountIdMap.put(mLmsUser.getLmsUserId(), mLmsUser.getAccountId());
+		}
+		Date date = new Date();
+		Set<String> registKeySet = new HashSet<>();
+		Map<String, TStudentAttendance> summaryTargetMap = new LinkedHashMap<>();
+		List<TStudentAttendance> tStudentAttendanceList = new ArrayList<>(importChunkSize);
+
+		File tempFile = File.createTempFile("attendance",
+				fileName.substring(fileName.lastIndexOf('.')));
+		try {
+			file.transferTo(tempFile);
+			SheetStreamReader.read(tempFile, fileName, Charset.forName(importCsvCharset),
+					(rowNum, values) -> {
+						// 見出し行・空行は対象外
+						if (rowNum == 1 || values.stream().allMatch(String::isBlank)) {
+							return;
+						}
+						attendanceBulkRegistDto
+								.setTotalCount(attendanceBulkRegistDto.getTotalCount() + 1);
+						TStudentAttendance tStudentAttendance = toBulkAttendance(rowNum, values,
+								courseId, accountIdMap, date, attendanceBulkRegistDto.getErrorList());
+						if (tStudentAttendance == null) {
+							return;
+						}
+						// 同一受講生・同一日付は1回の登録にまとめられないためエラーとする
+						String registKey = tStudentAttendance.getLmsUserId() + "_"
+								+ dateUtil.toString(tStudentAttendance.getTrainingDate());
+						if (!registKeySet.add(registKey)) {
+							attendanceBulkRegistDto.getErrorList().add(messageUtil.getMessage(
+									Constants.VALID_KEY_ATTENDANCE_BULK_DUPLICATE,
+									new String[] { rowNum + "行目" }));
+							return;
+						}
+						summaryTargetMap.putIfAbsent(tStudentAttendance.getLmsUserId() + "_"
+								+ dateUtil.toString(tStudentAttendance.getTrainingDate(), "yyyyMM"),
+								tStudentAttendance);
+						tStudentAttendanceList.add(tStudentAttendance);
+						if (tStudentAttendanceList.size() >= importChunkSize) {
+							tStudentAttendanceMapper.upsertList(tStudentAttendanceList);
+							attendanceBulkRegistDto.setRegistCount(attendanceBulkRegistDto
+									.getRegistCount() + tStudentAttendanceList.size());
+							tStudentAttendanceList.clear();
+						}
+					});
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+		if (!tStudentAttendanceList.isEmpty()) {
+			tStudentAttendanceMapper.upsertList(tStudentAttendanceList);
+			attendanceBulkRegistDto.setRegistCount(
+					attendanceBulkRegistDto.getRegistCount() + tStudentAttendanceList.size());
+		}
+		// 勤怠集計の更新と未入力有無の再判定（変更のあった受講生・月のみ）
+		Set<Integer> lmsUserIdSet = new HashSet<>();
+		for (TStudentAttendance tStudentAttendance : summaryTargetMap.values()) {
+			tStudentAttendanceSummaryMapper.refresh(tStudentAttendance.getLmsUserId(),
+					tStudentAttendance.getTrainingDate(), date, Constants.DB_FLG_FALSE);
+			if (lmsUserIdSet.add(tStudentAttendance.getLmsUserId())) {
+				attendanceNotEnterUtil.invalidate(tStudentAttendance.getLmsUserId());
+			}
+		}
+		attendanceBulkRegistDto.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+		return attendanceBulkRegistDto;
+	}
+
+	/**
+	 * 勤怠情報一括登録の1行を検証し、登録用エンティティに変換
+	 * 
+	 * @param rowNum
+	 * @param values
+	 * @param courseId
+	 * @param accountIdMap
+	 * @param date
+	 * @param errorList
+	 * @return 勤怠情報（受講生入力）エンティティ（エラーの場合はnull）
+	 */
+	private TStudentAttendance toBulkAttendance(int rowNum, List<String> values, Integer courseId,
+			Map<Integer, Integer> accountIdMap, Date date, List<String> errorList) {
+		String[] rowLabel = { rowNum + "行目" };
+		// LMSユーザーID
+		Integer lmsUserId;
+		try {
+			lmsUserId = Integer.valueOf(getValue(values, 0));
+		} catch (NumberFormatException e) {
+			errorList.add(getFormatError(rowLabel, "LMSユーザーID"));
+			return null;
+		}
+		if (!accountIdMap.containsKey(lmsUserId)) {
+			errorList.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_BULK_NOTSTUDENT,
+					rowLabel));
+			return null;
+		}
+		// 日付
+		Date trainingDate = parseBulkDate(getValue(values, 1));
+		if (trainingDate == null) {
+			errorList.add(getFormatError(rowLabel, "日付"));
+			return null;
+		}
+		if (!attendanceUtil.isWorkDay(courseId, trainingDate)) {
+			errorList.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_NOTWORKDAYBULK,
+					rowLabel));
+			return null;
+		}
+		// 出退勤時刻
+		int trainingStartMinutes;
+		int trainingEndMinutes;
+		try {
+			trainingStartMinutes = TrainingTime.parseMinutes(getValue(values, 2));
+		} catch (IllegalArgumentException e) {
+			errorList.add(getFormatError(rowLabel, "出勤時刻"));
+			return null;
+		}
+		try {
+			trainingEndMinutes = TrainingTime.parseMinutes(getValue(values, 3));
+		} catch (IllegalArgumentException e) {
+			errorList.add(getFormatError(rowLabel, "退勤時刻"));
+			return null;
+		}
+		if ((trainingStartMinutes == TrainingTime.BLANK) != (trainingEndMinutes == TrainingTime.BLANK)) {
+			errorList.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTYBULK,
+					rowLabel));
+			return null;
+		}
+		if (trainingStartMinutes > trainingEndMinutes) {
+			errorList.add(messageUtil
+					.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGEBULK, rowLabel));
+			return null;
+		}
+		// 中抜け時間
+		Integer blankTime = null;
+		String blankTimeValue = getValue(values, 4);
+		if (!blankTimeValue.isEmpty()) {
+			try {
+				blankTime = Integer.valueOf(blankTimeValue);
+			} catch (NumberFormatException e) {
+				blankTime = -1;
+			}
+			if (blankTime < 0) {
+				errorList.add(getFormatError(rowLabel, "中抜け時間"));
+				return null;
+			}
+			if (blankTime > trainingEndMinutes - trainingStartMinutes) {
+				errorList.add(messageUtil
+						.getMessage(Constants.VALID_KEY_ATTENDANCE_BLANKTIMEERRORBULK, rowLabel));
+				return null;
+			}
+		}
+
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setLmsUserId(lmsUserId);
+		tStudentAttendance.setTrainingDate(trainingDate);
+		tStudentAttendance.setTrainingStartTime(TrainingTime.formatMinutes(trainingStartMinutes));
+		tStudentAttendance.setTrainingEndTime(TrainingTime.formatMinutes(trainingEndMinutes));
+		tStudentAttendance.setStatus(
+				attendanceUtil.getStatus(trainingStartMinutes, trainingEndMinutes).code);
+		tStudentAttendance.setNote(getValue(values, 5));
+		tStudentAttendance.setAccountId(accountIdMap.get(lmsUserId));
 		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setFirstCreateDate(date);
 		tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tStudentAttendance.setLastModifiedDate(date);
-		tStudentAttendanceMapper.update(tStudentAttendance);
-		// 完了メッセージ
-		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+		tStudentAttendance.setBlankTime(blankTime);
+		return tStudentAttendance;
+	}
+
+	/**
+	 * 列の値を取得（列が無い場合は空文字）
+	 * 
+	 * @param values
+	 * @param index
+	 * @return 前後の空白を除いた値
+	 */
+	private String getValue(List<String> values, int index) {
+		return index < values.size() ? values.get(index).strip() : "";
+	}
+
+	/**
+	 * 入力形式エラーメッセージ取得
+	 * 
+	 * @param rowLabel
+	 * @param itemName
+	 * @return エラーメッセージ
+	 */
+	private String getFormatError(String[] rowLabel, String itemName) {
+		return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_BULK_FORMATERROR,
+				new String[] { rowLabel[0], itemName });
+	}
+
+	/**
+	 * 一括登録の日付変換<br>
+	 * "yyyy/M/d", "yyyy-M-d"と、Excelの標準日付書式"M/d/yy"に対応する
+	 * 
+	 * @param value
+	 * @return 日付（変換できない場合はnull）
+	 */
+	private Date parseBulkDate(String value) {
+		for (String pattern : new String[] { "yyyy/M/d", "yyyy-M-d", "M/d/yy" }) {
+			SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+			sdf.setLenient(false);
+			ParsePosition position = new ParsePosition(0);
+			Date parsed = sdf.parse(value, position);
+			if (parsed != null && position.getIndex() == value.length()) {
+				return parsed;
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -296,33 +623,39 @@ public class StudentAttendanceService {
 	 * @return 完了メッセージ
 	 * @throws ParseException
 	 */
+	@Transactional
 	public String update(AttendanceForm attendanceForm) throws ParseException {
 
 		Integer lmsUserId = loginUserUtil.isStudent() ? loginUserDto.getLmsUserId()
 				: attendanceForm.getLmsUserId();
 
-		// 現在の勤怠情報（受講生入力）リストを取得
-		List<TStudentAttendance> tStudentAttendanceList = tStudentAttendanceMapper
-				.findByLmsUserId(lmsUserId, Constants.DB_FLG_FALSE);
+		// 現在の勤怠情報（受講生入力）を研修日で索引化
+		Map<Date, TStudentAttendance> tStudentAttendanceMap = new HashMap<>();
+		for (TStudentAttendance entity : tStudentAttendanceMapper.findByLmsUserId(lmsUserId,
+				Constants.DB_FLG_FALSE)) {
+			tStudentAttendanceMap.put(entity.getTrainingDate(), entity);
+		}
 
 		// 入力された情報を更新用のエンティティに移し替え
 		Date date = new Date();
+		List<TStudentAttendance> tStudentAttendanceList = new ArrayList<>();
 		for (DailyAttendanceForm dailyAttendanceForm : attendanceForm.getAttendanceList()) {
 
+			// 研修日付
+			Date trainingDate = dateUtil.parse(dailyAttendanceForm.getTrainingDate());
+			// 現在の勤怠情報のうち、研修日が同じもの
+			TStudentAttendance current = tStudentAttendanceMap.get(trainingDate);
+
 			// 更新用エンティティ作成
 			TStudentAttendance tStudentAttendance = new TStudentAttendance();
-			// 日次勤怠フォームから更新用のエンティティにコピー
-			BeanUtils.copyProperties(dailyAttendanceForm, tStudentAttendance);
-			// 研修日付
-			tStudentAttendance
-					.setTrainingDate(dateUtil.parse(dailyAttendanceForm.getTrainingDate()));
-			// 現在の勤怠情報リストのうち、研修日が同じものを更新用エンティティで上書き
-			for (TStudentAttendance entity : tStudentAttendanceList) {
-				if (entity.getTrainingDate().equals(tStudentAttendance.getTrainingDate())) {
-					tStudentAttendance = entity;
-					break;
-				}
+			if (current != null) {
+				// 現在の勤怠情報をベースにする（差分判定のため現在の値は変更しない）
+				BeanUtils.copyProperties(current, tStudentAttendance);
+			} else {
+				// 日次勤怠フォームから更新用のエンティティにコピー
+				BeanUtils.copyProperties(dailyAttendanceForm, tStudentAttendance);
 			}
+			tStudentAttendance.setTrainingDate(trainingDate);
 			tStudentAttendance.setLmsUserId(lmsUserId);
 			tStudentAttendance.setAccountId(loginUserDto.getAccountId());
 			// 出勤時刻整形
@@ -377,51 +710,97 @@ public class StudentAttendanceService {
 			}
 			// 備考
 			tStudentAttendance.setNote(dailyAttendanceForm.getNote());
+			// 削除フラグ
+			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+
+			// 変更の無い日は更新対象外
+			if (current != null && !isModified(current, tStudentAttendance)) {
+				continue;
+			}
 			// 更新者と更新日時
 			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tStudentAttendance.setLastModifiedDate(date);
-			// 削除フラグ
-			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+			if (current == null) {
+				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+				tStudentAttendance.setFirstCreateDate(date);
+			}
 			// 登録用Listへ追加
 			tStudentAttendanceList.add(tStudentAttendance);
 		}
-		// 登録・更新処理
-		for (TStudentAttendance tStudentAttendance : tStudentAttendanceList) {
-			if (tStudentAttendance.getStudentAttendanceId() == null) {
-				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
-				tStudentAttendance.setFirstCreateDate(date);
-				tStudentAttendanceMapper.insert(tStudentAttendance);
-			} else {
-				tStudentAttendanceMapper.update(tStudentAttendance);
+		// 登録・更新処理（変更のあった日のみ1文で一括登録）
+		if (!tStudentAttendanceList.isEmpty()) {
+			tStudentAttendanceMapper.upsertList(tStudentAttendanceList);
+			// 勤怠集計の更新（変更のあった月のみ）
+			Map<String, Date> targetMonthMap = new LinkedHashMap<>();
+			for (TStudentAttendance tStudentAttendance : tStudentAttendanceList) {
+				targetMonthMap.putIfAbsent(
+						dateUtil.toString(tStudentAttendance.getTrainingDate(), "yyyyMM"),
+						tStudentAttendance.getTrainingDate());
+			}
+			for (Date targetMonth : targetMonthMap.values()) {
+				tStudentAttendanceSummaryMapper.refresh(lmsUserId, targetMonth,
+						date, Constants.DB_FLG_FALSE);
 			}
+			// 未入力有無の再判定
+			attendanceNotEnterUtil.invalidate(lmsUserId);
 		}
 		// 完了メッセージ
 		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
 	}
 
 	/**
-	 * 勤怠情報未入力件数取得
+	 * 勤怠情報の変更有無を判定
+	 * 
+	 * @param current 現在の勤怠情報
+	 * @param updated 更新用の勤怠情報
+	 * @return 変更がある場合true
+	 */
+	private boolean isModified(TStudentAttendance current, TStudentAttendance updated) {
+		return !Objects.equals(current.getTrainingStartTime(), updated.getTrainingStartTime())
+				|| !Objects.equals(current.getTrainingEndTime(), updated.getTrainingEndTime())
+				|| !Objects.equals(current.getStatus(), updated.getStatus())
+				|| !Objects.equals(current.getNote(), updated.getNote())
+				|| !Objects.equals(current.getBlankTime(), updated.getBlankTime())
+				|| !Objects.equals(current.getAccountId(), updated.getAccountId());
+	}
+
+	/**
+	 * 勤怠情報未入力有無取得<br>
+	 * 勤怠の更新時と日付変更時に再判定した結果をメモリ上から返却する
 	 * @author 田中智貴
 	 * @param lmsUserId
-	 * @param trainingDate
-	 * @param deleteFlg
-	 * @return Integer
+	 * @return 未入力の勤怠情報がある場合true
 	 */
-	//本日の日付の取得
-	public boolean getNotEnterCount(Integer lmsUserId) throws ParseException {
-
-
-			//今日の日付を"yyyy/MM/dd"形式に変換
-			Date date = new Date();
-			SimpleDateFormat df = new SimpleDateFormat("yyyy/MM/dd");
-			Date trainingDate = df.parse(df.format( date));
-			//task25
-			// 勤怠情報の未入力件数を取得
-			Integer notEnterCount = tStudentAttendanceMapper.notEnterCount(lmsUserId,trainingDate,
-					Constants.DB_FLG_FALSE);
-
+	public boolean getNotEnterCount(Integer lmsUserId) {
+		return attendanceNotEnterUtil.hasNotEnter(lmsUserId);
+	}
 
+	/**
+	 * 勤怠集計取得（受講生・月別）
+	 * 
+	 * @param lmsUserId
+	 * @param targetMonth 対象月の任意の日付
+	 * @return 勤怠集計エンティティ（勤怠情報が無い月はnull）
+	 */
+	public TStudentAttendanceSummary getAttendanceSummary(Integer lmsUserId, Date targetMonth) {
+		return tStudentAttendanceSummaryMapper.findByLmsUserIdAndTargetMonth(lmsUserId,
+				targetMonth);
+	}
 
-		return notEnterCount > 0 ;//件数を返す
+	/**
+	 * 勤怠集計取得（コース・月別）
+	 * 
+	 * @param courseId
+	 * @param targetMonth 対象月の任意の日付
+	 * @return LMSユーザーIDをキーとした勤怠集計エンティティ（勤怠情報が無い受講生は含まない）
+	 */
+	public Map<Integer, TStudentAttendanceSummary> getCourseAttendanceSummary(Integer courseId,
+			Date targetMonth) {
+		Map<Integer, TStudentAttendanceSummary> attendanceSummaryMap = new HashMap<>();
+		for (TStudentAttendanceSummary summary : tStudentAttendanceSummaryMapper
+				.findByCourseIdAndTargetMonth(courseId, targetMonth, Constants.DB_FLG_FALSE)) {
+			attendanceSummaryMap.put(summary.getLmsUserId(), summary);
+		}
+		return attendanceSummaryMap;
 	}
 }
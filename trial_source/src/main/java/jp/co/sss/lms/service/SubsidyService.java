@@ -0,0 +1,452 @@
+package jp.co.sss.lms.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.util.CellReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import jp.co.sss.lms.dto.SubsidyStudentDto;
+import jp.co.sss.lms.entity.MCompany;
+import jp.co.sss.lms.entity.MSection;
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.mapper.MCompanyMapper;
+import jp.co.sss.lms.mapper.MLmsUserMapper;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.CourseCalendarUtil;
+import jp.co.sss.lms.util.ExcelUtil;
+import jp.co.sss.lms.util.FileUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.SheetStreamWriter;
+import jp.co.sss.lms.util.SheetStreamWriter.SheetValues;
+import jp.co.sss.lms.util.TrainingTime;
+
+/**
+ * 助成金申請書類サービス<br>
+ * 受講状況（受講生単位）と雇調金（コース単位）のワークブックをテンプレートから作成する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class SubsidyService {
+
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private CourseCalendarUtil courseCalendarUtil;
+	@Autowired
+	private MCompanyMapper mCompanyMapper;
+	@Autowired
+	private MLmsUserMapper mLmsUserMapper;
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+
+	/** 1日の訓練時間（分） */
+	private static final int DAILY_TRAINING_MINUTES = (Constants.SSS_WORK_END_TIME.toMinutes()
+			- Constants.SSS_WORK_START_TIME.toMinutes())
+			- (Constants.SSS_REST_END_TIME.toMinutes() - Constants.SSS_REST_START_TIME.toMinutes());
+
+	/** 受講状況・雇調金 値を設定する先頭行（0始まり） */
+	private static final int ROW_DATA = 1;
+
+	/** 受講状況 ダウンロード日(年) ※(月)(日)は続く列 */
+	private static final int CLM_ATTENDANCE_DOWNLOAD_DATE = CellReference.convertColStringToIndex("BE");
+	/** 受講状況 受講生名 */
+	private static final int CLM_ATTENDANCE_USER_NAME = CellReference.convertColStringToIndex("BH");
+	/** 受講状況 会場名 */
+	private static final int CLM_ATTENDANCE_PLACE_NAME = CellReference.convertColStringToIndex("BI");
+	/** 受講状況 会場住所 */
+	private static final int CLM_ATTENDANCE_PLACE_ADDRESS = CellReference.convertColStringToIndex("BJ");
+	/** 受講状況 コース名 */
+	private static final int CLM_ATTENDANCE_COURSE_NAME = CellReference.convertColStringToIndex("BK");
+	/** 受講状況 訓練時間合計(時) */
+	private static final int CLM_ATTENDANCE_TOTAL_TRAINING = CellReference.convertColStringToIndex("BL");
+	/** 受講状況 受講時間合計(時) */
+	private static final int CLM_ATTENDANCE_TOTAL_ATTENDED = CellReference.convertColStringToIndex("BN");
+	/** 受講状況 総訓練時間(時) */
+	private static final int CLM_ATTENDANCE_COURSE_TRAINING = CellReference.convertColStringToIndex("BP");
+	/** 受講状況 賃金助成時間合計(時) */
+	private static final int CLM_ATTENDANCE_TOTAL_WAGE = CellReference.convertColStringToIndex("BR");
+	/** 受講状況 所定労働開始時間(時) ※終了・休憩開始・休憩終了は続く列 */
+	private static final int CLM_ATTENDANCE_WORK_START = CellReference.convertColStringToIndex("BT");
+	/** 受講状況 休日 */
+	private static final int CLM_ATTENDANCE_HOLIDAY = CellReference.convertColStringToIndex("CB");
+	/** 受講状況 実施日(月) ※(日)(曜日)は続く列 */
+	private static final int CLM_ATTENDANCE_MONTH = CellReference.convertColStringToIndex("CC");
+	/** 受講状況 訓練開始時間(時) */
+	private static final int CLM_ATTENDANCE_START = CellReference.convertColStringToIndex("CF");
+	/** 受講状況 訓練終了時間(時) */
+	private static final int CLM_ATTENDANCE_END = CellReference.convertColStringToIndex("CH");
+	/** 受講状況 訓練時間(時) */
+	private static final int CLM_ATTENDANCE_TRAINING = CellReference.convertColStringToIndex("CJ");
+	/** 受講状況 休憩時間(時) */
+	private static final int CLM_ATTENDANCE_REST = CellReference.convertColStringToIndex("CL");
+	/** 受講状況 受講時間(時) */
+	private static final int CLM_ATTENDANCE_ATTENDED = CellReference.convertColStringToIndex("CN");
+	/** 受講状況 賃金助成時間(時) */
+	private static final int CLM_ATTENDANCE_WAGE = CellReference.convertColStringToIndex("CP");
+	/** 受講状況 セクション名 */
+	private static final int CLM_ATTENDANCE_SECTION_NAME = CellReference.convertColStringToIndex("CR");
+	/** 受講状況 実施内容 */
+	private static final int CLM_ATTENDANCE_SECTION_DESCRIPTION = CellReference.convertColStringToIndex("CS");
+	/** 受講状況 勤怠状況 */
+	private static final int CLM_ATTENDANCE_STATUS = CellReference.convertColStringToIndex("CT");
+	/** 受講状況 中抜け時間(時) */
+	private static final int CLM_ATTENDANCE_BLANK = CellReference.convertColStringToIndex("CU");
+
+	/** 雇調金 ダウンロード日(年) ※(月)(日)は続く列 */
+	private static final int CLM_EMPLOYMENT_DOWNLOAD_DATE = CellReference.convertColStringToIndex("A");
+	/** 雇調金 労働局都道府県 ※企業情報は休日まで続く列 */
+	private static final int CLM_EMPLOYMENT_PREFECTURE = CellReference.convertColStringToIndex("D");
+	/** 雇調金 所定労働開始時間(時) ※終了・休憩開始・休憩終了は続く列 */
+	private static final int CLM_EMPLOYMENT_WORK_START = CellReference.convertColStringToIndex("U");
+	/** 雇調金 コース名 ※コース・会場情報は続く列 */
+	private static final int CLM_EMPLOYMENT_COURSE_NAME = CellReference.convertColStringToIndex("AC");
+	/** 雇調金 受講生数 */
+	private static final int CLM_EMPLOYMENT_STUDENT_COUNT = CellReference.convertColStringToIndex("AN");
+	/** 雇調金 受講生名 ※受講生毎の時間は続く列 */
+	private static final int CLM_EMPLOYMENT_USER_NAME = CellReference.convertColStringToIndex("AO");
+
+	/**
+	 * 助成金申請書類の一括作成<br>
+	 * 企業の受講生毎に受講状況、コース毎に雇調金のワークブックを作成し、ZIPファイルに書き込む。
+	 * 1ワークブックずつ一時ファイルへ出力するため、メモリ使用量は受講生数に依存しない。
+	 *
+	 * @param companyId
+	 * @param targetMonth 対象月の任意の日付
+	 * @return ZIPファイル（一時ファイルのため、呼び出し元で削除すること）
+	 * @throws IOException
+	 */
+	@Async("subsidyTaskExecutor")
+	public CompletableFuture<File> createSubsidyZip(Integer companyId, Date targetMonth)
+			throws IOException {
+		MCompany mCompany = mCompanyMapper.findByCompanyId(companyId, Constants.DB_FLG_FALSE);
+		if (mCompany == null) {
+			throw new IllegalArgumentException("companyId:" + companyId + " is not found.");
+		}
+		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
+		byte[] attendanceTemplate = ExcelUtil.getTemplate(commonFileDir + "/"
+				+ messageUtil.getMessage("setting.file.template.subsidyAttendance"));
+		byte[] employmentTemplate = ExcelUtil.getTemplate(commonFileDir + "/"
+				+ messageUtil.getMessage("setting.file.template.subsidyEmploymentAdjustment"));
+		String attendanceSheetName = messageUtil
+				.getMessage("setting.file.templateSheet.subsidyAttendance");
+		String employmentSheetName = messageUtil
+				.getMessage("setting.file.templateSheet.subsidyEmploymentAdjustment");
+
+		LocalDate monthStart = LocalDate.ofEpochDay(courseCalendarUtil.toEpochDay(targetMonth))
+				.withDayOfMonth(1);
+		String monthLabel = new SimpleDateFormat("yyyyMM").format(targetMonth);
+		Date downloadDate = new Date();
+
+		Path zipPath = Files.createTempFile("subsidy", ".zip");
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(zipPath));
+				ZipOutputStream zos = new ZipOutputStream(out, Charset.forName("MS932"))) {
+			Set<String> entryNameSet = new HashSet<>();
+			// コースID順に取得しているため、コースが切り替わった時点で雇調金を出力する
+			List<SubsidyStudentDto> courseStudentList = new ArrayList<>();
+			List<MonthlyTotal> courseTotalList = new ArrayList<>();
+			for (SubsidyStudentDto student : mLmsUserMapper.findSubsidyStudentByCompanyId(companyId,
+					Constants.DB_FLG_FALSE)) {
+				if (!courseStudentList.isEmpty() && !Objects.equals(
+						courseStudentList.get(0).getCourseId(), student.getCourseId())) {
+					putEntry(zos, entryNameSet, "雇調金_" + monthLabel + "_"
+							+ courseStudentList.get(0).getCourseName() + ".xlsm");
+					SheetStreamWriter.write(employmentTemplate, employmentSheetName, getEmploymentValues(
+							mCompany, courseStudentList, courseTotalList, downloadDate), zos);
+					courseStudentList.clear();
+					courseTotalList.clear();
+				}
+				SheetValues attendanceValues = new SheetValues();
+				MonthlyTotal total = setAttendanceValues(attendanceValues, mCompany, student,
+						monthStart, downloadDate);
+				putEntry(zos, entryNameSet,
+						"受講状況_" + monthLabel + "_" + student.getUserName() + ".xlsm");
+				SheetStreamWriter.write(attendanceTemplate, attendanceSheetName, attendanceValues,
+						zos);
+				courseStudentList.add(student);
+				courseTotalList.add(total);
+			}
+			if (!courseStudentList.isEmpty()) {
+				putEntry(zos, entryNameSet, "雇調金_" + monthLabel + "_"
+						+ courseStudentList.get(0).getCourseName() + ".xlsm");
+				SheetStreamWriter.write(employmentTemplate, employmentSheetName, getEmploymentValues(
+						mCompany, courseStudentList, courseTotalList, downloadDate), zos);
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(zipPath);
+			throw e;
+		}
+		return CompletableFuture.completedFuture(zipPath.toFile());
+	}
+
+	/**
+	 * 受講状況の書込値を設定
+	 *
+	 * @param values
+	 * @param mCompany
+	 * @param student
+	 * @param monthStart   対象月の初日
+	 * @param downloadDate
+	 * @return 対象月の合計時間
+	 */
+	private MonthlyTotal setAttendanceValues(SheetValues values, MCompany mCompany,
+			SubsidyStudentDto student, LocalDate monthStart, Date downloadDate) {
+
+		// 対象月の研修日（1日に複数セクションがある場合は先頭のセクション）
+		Map<Long, MSection> sectionMap = new LinkedHashMap<>();
+		Set<Long> courseWorkDaySet = new HashSet<>();
+		long monthStartDay = monthStart.toEpochDay();
+		long monthEndDay = monthStart.plusMonths(1).toEpochDay();
+		for (MSection mSection : courseCalendarUtil.getSectionList(student.getCourseId())) {
+			if (mSection.getDate() == null) {
+				continue;
+			}
+			long epochDay = courseCalendarUtil.toEpochDay(mSection.getDate());
+			courseWorkDaySet.add(epochDay);
+			if (epochDay >= monthStartDay && epochDay < monthEndDay) {
+				sectionMap.putIfAbsent(epochDay, mSection);
+			}
+		}
+		Map<Long, TStudentAttendance> attendanceMap = new HashMap<>();
+		for (TStudentAttendance tStudentAttendance : tStudentAttendanceMapper
+				.findByLmsUserIdAndTargetMonth(student.getLmsUserId(), java.sql.Date.valueOf(monthStart),
+						Constants.DB_FLG_FALSE)) {
+			attendanceMap.put(courseCalendarUtil.toEpochDay(tStudentAttendance.getTrainingDate()),
+					tStudentAttendance);
+		}
+
+		int companyRestStart = parseMinutes(mCompany.getRestStartTime());
+		int companyRestEnd = parseMinutes(mCompany.getRestEndTime());
+		int restStart = Constants.SSS_REST_START_TIME.toMinutes();
+		int restEnd = Constants.SSS_REST_END_TIME.toMinutes();
+		MonthlyTotal total = new MonthlyTotal();
+		int rowNum = ROW_DATA;
+		for (Map.Entry<Long, MSection> entry : sectionMap.entrySet()) {
+			LocalDate trainingDate = LocalDate.ofEpochDay(entry.getKey());
+			TStudentAttendance tStudentAttendance = attendanceMap.get(entry.getKey());
+			int start = TrainingTime.BLANK;
+			int end = TrainingTime.BLANK;
+			int rest = 0;
+			int attended = 0;
+			if (tStudentAttendance != null) {
+				start = parseMinutes(tStudentAttendance.getTrainingStartTime());
+				end = parseMinutes(tStudentAttendance.getTrainingEndTime());
+				if (start != TrainingTime.BLANK && end != TrainingTime.BLANK && start < end) {
+					// 研修の休憩時間と重なる分・中抜け時間は受講時間に含めない（勤怠集計の勤務時間と同じ扱い）
+					rest = Math.max(0, Math.min(end, restEnd) - Math.max(start, restStart));
+					attended = Math.max(0, end - start - rest
+							- Objects.requireNonNullElse(tStudentAttendance.getBlankTime(), 0));
+				}
+			}
+			// 賃金助成時間（企業規定の休憩時間のうち1時間を超える分は差し引く）
+			int wage = TrainingTime.restTimeZone(attended, companyRestStart, companyRestEnd);
+
+			values.setVal(rowNum, CLM_ATTENDANCE_MONTH, trainingDate.getMonthValue());
+			values.setVal(rowNum, CLM_ATTENDANCE_MONTH + 1, trainingDate.getDayOfMonth());
+			values.setVal(rowNum, CLM_ATTENDANCE_MONTH + 2,
+					trainingDate.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.JAPANESE));
+			values.setHourMinute(rowNum, CLM_ATTENDANCE_START, start);
+			values.setHourMinute(rowNum, CLM_ATTENDANCE_END, end);
+			values.setHourMinute(rowNum, CLM_ATTENDANCE_TRAINING, DAILY_TRAINING_MINUTES);
+			values.setHourMinute(rowNum, CLM_ATTENDANCE_REST, rest);
+			values.setHourMinute(rowNum, CLM_ATTENDANCE_ATTENDED, attended);
+			values.setHourMinute(rowNum, CLM_ATTENDANCE_WAGE, wage);
+			values.setVal(rowNum, CLM_ATTENDANCE_SECTION_NAME, entry.getValue().getSectionName());
+			values.setVal(rowNum, CLM_ATTENDANCE_SECTION_DESCRIPTION,
+					entry.getValue().getSectionDescription());
+			if (tStudentAttendance != null) {
+				AttendanceStatusEnum status = AttendanceStatusEnum
+						.getEnum(tStudentAttendance.getStatus());
+				values.setVal(rowNum, CLM_ATTENDANCE_STATUS, (status == null) ? null : status.name);
+				values.setHourMinute(rowNum, CLM_ATTENDANCE_BLANK,
+						Objects.requireNonNullElse(tStudentAttendance.getBlankTime(), 0));
+			}
+			total.trainingMinutes += DAILY_TRAINING_MINUTES;
+			total.restMinutes += rest;
+			total.attendedMinutes += attended;
+			total.wageMinutes += wage;
+			rowNum++;
+		}
+		total.courseTrainingMinutes = courseWorkDaySet.size() * DAILY_TRAINING_MINUTES;
+		total.courseWorkDays = courseWorkDaySet.size();
+
+		setDownloadDate(values, CLM_ATTENDANCE_DOWNLOAD_DATE, downloadDate);
+		values.setVal(ROW_DATA, CLM_ATTENDANCE_USER_NAME, student.getUserName());
+		values.setVal(ROW_DATA, CLM_ATTENDANCE_PLACE_NAME, student.getPlaceName());
+		values.setVal(ROW_DATA, CLM_ATTENDANCE_PLACE_ADDRESS, student.getPlaceDescription());
+		values.setVal(ROW_DATA, CLM_ATTENDANCE_COURSE_NAME, student.getCourseName());
+		values.setHourMinute(ROW_DATA, CLM_ATTENDANCE_TOTAL_TRAINING, total.trainingMinutes);
+		values.setHourMinute(ROW_DATA, CLM_ATTENDANCE_TOTAL_ATTENDED, total.attendedMinutes);
+		values.setHourMinute(ROW_DATA, CLM_ATTENDANCE_COURSE_TRAINING, total.courseTrainingMinutes);
+		values.setHourMinute(ROW_DATA, CLM_ATTENDANCE_TOTAL_WAGE, total.wageMinutes);
+		setCompanyTimes(values, CLM_ATTENDANCE_WORK_START, mCompany);
+		values.setVal(ROW_DATA, CLM_ATTENDANCE_HOLIDAY, mCompany.getHoliday());
+		return total;
+	}
+
+	/**
+	 * 雇調金の書込値を取得
+	 *
+	 * @param mCompany
+	 * @param studentList コースの受講生
+	 * @param totalList   受講生毎の対象月の合計時間
+	 * @param downloadDate
+	 * @return 書込値
+	 */
+	private SheetValues getEmploymentValues(MCompany mCompany, List<SubsidyStudentDto> studentList,
+			List<MonthlyTotal> totalList, Date downloadDate) {
+		SheetValues values = new SheetValues();
+		setDownloadDate(values, CLM_EMPLOYMENT_DOWNLOAD_DATE, downloadDate);
+
+		// 企業情報（労働局都道府県～休日）
+		Object[] companyValues = { mCompany.getPrefecture(), mCompany.getPostNumber1(),
+				mCompany.getPostNumber2(), mCompany.getAddress(), mCompany.getCompanyName(),
+				mCompany.getCompanyNameKana(), mCompany.getRepresentativePost(),
+				mCompany.getRepresentativeName(), mCompany.getPhoneNumber1(),
+				mCompany.getPhoneNumber2(), mCompany.getPhoneNumber3(),
+				mCompany.getSubsidyPhoneNumber1(), mCompany.getSubsidyPhoneNumber2(),
+				mCompany.getSubsidyPhoneNumber3(), mCompany.getCapital(),
+				mCompany.getWorkerAmount(), mCompany.getHoliday() };
+		for (int i = 0; i < companyValues.length; i++) {
+			values.setVal(ROW_DATA, CLM_EMPLOYMENT_PREFECTURE + i, companyValues[i]);
+		}
+		setCompanyTimes(values, CLM_EMPLOYMENT_WORK_START, mCompany);
+
+		// コース・会場情報（コース名～収容可能人数）
+		SubsidyStudentDto course = studentList.get(0);
+		MonthlyTotal courseTotal = totalList.get(0);
+		Object[] courseValues = { course.getCourseName(), course.getCourseDescription(),
+				course.getOpenTime(), course.getCloseTime(),
+				courseTotal.courseTrainingMinutes / 60.0, courseTotal.courseWorkDays,
+				course.getPlaceName(), course.getPlaceDescription(), course.getSeatingCapacity() };
+		for (int i = 0; i < courseValues.length; i++) {
+			values.setVal(ROW_DATA, CLM_EMPLOYMENT_COURSE_NAME + i, courseValues[i]);
+		}
+		values.setVal(ROW_DATA, CLM_EMPLOYMENT_STUDENT_COUNT, studentList.size());
+
+		// 受講生毎に1行（受講生名～賃金助成時間）
+		for (int i = 0; i < studentList.size(); i++) {
+			MonthlyTotal total = totalList.get(i);
+			int rowNum = ROW_DATA + i;
+			values.setVal(rowNum, CLM_EMPLOYMENT_USER_NAME, studentList.get(i).getUserName());
+			values.setHourMinute(rowNum, CLM_EMPLOYMENT_USER_NAME + 1, total.trainingMinutes);
+			values.setHourMinute(rowNum, CLM_EMPLOYMENT_USER_NAME + 3, total.attendedMinutes);
+			values.setHourMinute(rowNum, CLM_EMPLOYMENT_USER_NAME + 5, total.restMinutes);
+			values.setHourMinute(rowNum, CLM_EMPLOYMENT_USER_NAME + 7,
+					total.courseTrainingMinutes);
+			values.setHourMinute(rowNum, CLM_EMPLOYMENT_USER_NAME + 9, total.wageMinutes);
+		}
+		return values;
+	}
+
+	/**
+	 * 企業の所定労働時間・休憩時間を時・分で設定
+	 *
+	 * @param values
+	 * @param clmNum   所定労働開始時間(時)の列
+	 * @param mCompany
+	 */
+	private void setCompanyTimes(SheetValues values, int clmNum, MCompany mCompany) {
+		values.setHourMinute(ROW_DATA, clmNum, parseMinutes(mCompany.getWorkStartTime()));
+		values.setHourMinute(ROW_DATA, clmNum + 2, parseMinutes(mCompany.getWorkEndTime()));
+		values.setHourMinute(ROW_DATA, clmNum + 4, parseMinutes(mCompany.getRestStartTime()));
+		values.setHourMinute(ROW_DATA, clmNum + 6, parseMinutes(mCompany.getRestEndTime()));
+	}
+
+	/**
+	 * ダウンロード日を年・月・日で設定
+	 *
+	 * @param values
+	 * @param clmNum       ダウンロード日(年)の列
+	 * @param downloadDate
+	 */
+	private void setDownloadDate(SheetValues values, int clmNum, Date downloadDate) {
+		LocalDate date = LocalDate.ofEpochDay(courseCalendarUtil.toEpochDay(downloadDate));
+		values.setVal(ROW_DATA, clmNum, date.getYear());
+		values.setVal(ROW_DATA, clmNum + 1, date.getMonthValue());
+		values.setVal(ROW_DATA, clmNum + 2, date.getDayOfMonth());
+	}
+
+	/**
+	 * 時刻文字列を経過分数に変換
+	 *
+	 * @param timeStr
+	 * @return 経過分数（空・不正な形式の場合は{@link TrainingTime#BLANK}）
+	 */
+	private int parseMinutes(String timeStr) {
+		try {
+			return TrainingTime.parseMinutes(timeStr);
+		} catch (IllegalArgumentException e) {
+			return TrainingTime.BLANK;
+		}
+	}
+
+	/**
+	 * ZIPエントリの追加<br>
+	 * 同名のファイルがあった場合はファイル名末尾に「(n)」を付与する
+	 *
+	 * @param zos
+	 * @param entryNameSet 追加済みのファイル名
+	 * @param fileName
+	 * @throws IOException
+	 */
+	private void putEntry(ZipOutputStream zos, Set<String> entryNameSet, String fileName)
+			throws IOException {
+		// ファイル名に使用できない文字は置換する
+		String baseName = fileName.replaceAll("[\\\\/:*?\"<>|]", "_");
+		String entryName = baseName;
+		int count = 1;
+		while (!entryNameSet.add(entryName)) {
+			entryName = FileUtil.getPrefix(baseName) + "(" + count + ")."
+					+ FileUtil.getSuffix(baseName);
+			count++;
+		}
+		zos.putNextEntry(new ZipEntry(entryName));
+	}
+
+	/**
+	 * 対象月の合計時間（受講生単位）
+	 */
+	private static final class MonthlyTotal {
+
+		/** 訓練時間合計（分） */
+		private int trainingMinutes;
+		/** 休憩時間合計（分） */
+		private int restMinutes;
+		/** 受講時間合計（分） */
+		private int attendedMinutes;
+		/** 賃金助成時間合計（分） */
+		private int wageMinutes;
+		/** コースの総訓練時間（分） */
+		private int courseTrainingMinutes;
+		/** コースの訓練日数 */
+		private int courseWorkDays;
+	}
+
+}
@@ -0,0 +1,130 @@
+package jp.co.sss.lms.util;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.mapper.TStudentAttendanceSummaryMapper;
+
+/**
+ * 勤怠未入力判定ユーティリティ<br>
+ * 受講生毎の「過去の研修日に未入力の勤怠がある」フラグをメモリ上に保持する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class AttendanceNotEnterUtil {
+
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private TStudentAttendanceSummaryMapper tStudentAttendanceSummaryMapper;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** LMSユーザーIDをキーとした未入力フラグ */
+	private final ConcurrentMap<Integer, NotEnterFlag> flagMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 未入力の勤怠があるか判定
+	 * 
+	 * @param lmsUserId
+	 * @return 判定結果
+	 */
+	public boolean hasNotEnter(Integer lmsUserId) {
+		if (lmsUserId == null) {
+			return false;
+		}
+		LocalDate today = LocalDate.now();
+		NotEnterFlag flag = flagMap.get(lmsUserId);
+		if (flag != null && flag.epochDay == today.toEpochDay()) {
+			return flag.hasNotEnter;
+		}
+		return flagMap.compute(lmsUserId, (key, current) -> {
+			if (current != null && current.epochDay == today.toEpochDay()) {
+				return current;
+			}
+			return load(key, today);
+		}).hasNotEnter;
+	}
+
+	/**
+	 * 未入力フラグの破棄（受講生単位）<br>
+	 * 過去日の勤怠情報を更新した場合に呼び出す。トランザクション中の場合はコミット後に破棄する。
+	 * 
+	 * @param lmsUserId
+	 */
+	public void invalidate(Integer lmsUserId) {
+		if (lmsUserId == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					flagMap.remove(lmsUserId);
+				}
+			});
+		} else {
+			flagMap.remove(lmsUserId);
+		}
+	}
+
+	/**
+	 * 日付変更時の破棄<br>
+	 * 前日分が判定対象に加わるため、毎日0時に全受講生のフラグを破棄する。
+	 * 日付が変わったフラグは読込時にも再判定されるため、実行の遅れは結果に影響しない。
+	 * 勤怠集計の未入力件数も同じ理由で変わるため、前月以降の分を再集計する
+	 * （停止により実行されなかった日があっても、前月分までは次回の実行で反映される）。
+	 */
+	@Scheduled(cron = "0 0 0 * * *")
+	public void rollover() {
+		flagMap.clear();
+		LocalDate fromDate = LocalDate.now().minusMonths(1);
+		Integer count = tStudentAttendanceSummaryMapper.refreshNotEnterCount(
+				Date.from(fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant()), new Date(),
+				Constants.DB_FLG_FALSE);
+		logger.info("勤怠集計の未入力件数を再集計 " + count + "件");
+	}
+
+	/**
+	 * 未入力フラグの読込
+	 * 
+	 * @param lmsUserId
+	 * @param today
+	 * @return 未入力フラグ
+	 */
+	private NotEnterFlag load(Integer lmsUserId, LocalDate today) {
+		Date trainingDate = Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant());
+		Boolean exists = tStudentAttendanceMapper.existsNotEnter(lmsUserId, trainingDate);
+		return new NotEnterFlag(today.toEpochDay(), Boolean.TRUE.equals(exists));
+	}
+
+	/**
+	 * 未入力フラグ
+	 */
+	private static final class NotEnterFlag {
+
+		/** 判定日（エポック日） */
+		private final long epochDay;
+		/** 未入力の勤怠有無 */
+		private final boolean hasNotEnter;
+
+		private NotEnterFlag(long epochDay, boolean hasNotEnter) {
+			this.epochDay = epochDay;
+			this.hasNotEnter = hasNotEnter;
+		}
+	}
+
+}
@@ -10,7 +10,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jp.co.sss.lms.enums.AttendanceStatusEnum;
-import jp.co.sss.lms.mapper.MSectionMapper;
 
 /**
  * 勤怠管理のユーティリティクラス
@@ -23,7 +22,7 @@ public class AttendanceUtil {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private MSectionMapper mSectionMapper;
+	private CourseCalendarUtil courseCalendarUtil;
 
 	/**
 	 * SSS定時・出退勤時間を元に、遅刻早退を判定をする
@@ -34,35 +33,42 @@ public class AttendanceUtil {
 	 */
 	public AttendanceStatusEnum getStatus(TrainingTime trainingStartTime,
 			TrainingTime trainingEndTime) {
-		return getStatus(trainingStartTime, trainingEndTime, Constants.SSS_WORK_START_TIME,
-				Constants.SSS_WORK_END_TIME);
+		return getStatus(toMinutes(trainingStartTime), toMinutes(trainingEndTime));
+	}
+
+	/**
+	 * SSS定時・出退勤時間（0時からの経過分数）を元に、遅刻早退を判定をする
+	 * 
+	 * @param trainingStartMinutes 開始時刻（未設定の場合は{@link TrainingTime#BLANK}）
+	 * @param trainingEndMinutes   終了時刻（未設定の場合は{@link TrainingTime#BLANK}）
+	 * @return 判定結果
+	 */
+	public AttendanceStatusEnum getStatus(int trainingStartMinutes, int trainingEndMinutes) {
+		return getStatus(trainingStartMinutes, trainingEndMinutes,
+				Constants.SSS_WORK_START_TIME.toMinutes(), Constants.SSS_WORK_END_TIME.toMinutes());
 	}
 
 	/**
 	 * 与えられた定時・出退勤時間を元に、遅刻早退を判定する
 	 * 
-	 * @param trainingStartTime 開始時刻
-	 * @param trainingEndTime   終了時刻
-	 * @param workStartTime     定時開始時刻
-	 * @param workEndTime       定時終了時刻
+	 * @param trainingStartMinutes 開始時刻
+	 * @param trainingEndMinutes   終了時刻
+	 * @param workStartMinutes     定時開始時刻
+	 * @param workEndMinutes       定時終了時刻
 	 * @return 判定結果
 	 */
-	private AttendanceStatusEnum getStatus(TrainingTime trainingStartTime,
-			TrainingTime trainingEndTime, TrainingTime workStartTime, TrainingTime workEndTime) {
+	private AttendanceStatusEnum getStatus(int trainingStartMinutes, int trainingEndMinutes,
+			int workStartMinutes, int workEndMinutes) {
 		// 定時が不明な場合、NONEを返却する
-		if (workStartTime == null || workStartTime.isBlank() || workEndTime == null
-				|| workEndTime.isBlank()) {
+		if (workStartMinutes == TrainingTime.BLANK || workEndMinutes == TrainingTime.BLANK) {
 			return AttendanceStatusEnum.NONE;
 		}
-		boolean isLate = false, isEarly = false;
 		// 定時より1分以上遅く出社していたら遅刻(＝はセーフ)
-		if (trainingStartTime != null && trainingStartTime.isNotBlank()) {
-			isLate = (trainingStartTime.compareTo(workStartTime) > 0);
-		}
+		boolean isLate = trainingStartMinutes != TrainingTime.BLANK
+				&& trainingStartMinutes > workStartMinutes;
 		// 定時より1分以上早く退社していたら早退(＝はセーフ)
-		if (trainingEndTime != null && trainingEndTime.isNotBlank()) {
-			isEarly = (trainingEndTime.compareTo(workEndTime) < 0);
-		}
+		boolean isEarly = trainingEndMinutes != TrainingTime.BLANK
+				&& trainingEndMinutes < workEndMinutes;
 		if (isLate && isEarly) {
 			return AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY;
 		}
@@ -75,6 +81,16 @@ public class AttendanceUtil {
 		return AttendanceStatusEnum.NONE;
 	}
 
+	/**
+	 * 研修時刻を経過分数に変換
+	 * 
+	 * @param trainingTime
+	 * @return 0時からの経過分数（nullの場合は{@link TrainingTime#BLANK}）
+	 */
+	private int toMinutes(TrainingTime trainingTime) {
+		return (trainingTime == null) ? TrainingTime.BLANK : trainingTime.toMinutes();
+	}
+
 	/**
 	 * 中抜け時間を時(hour)と分(minute)に変換
 	 *
@@ -82,10 +98,7 @@ public class AttendanceUtil {
 	 * @return 時(hour)と分(minute)に変換したクラス
 	 */
 	public TrainingTime calcBlankTime(int min) {
-		int hour = min / 60;
-		int minute = min % 60;
-		TrainingTime total = new TrainingTime(hour, minute);
-		return total;
+		return TrainingTime.ofMinutes(min);
 	}
 
 	/**
@@ -179,11 +192,7 @@ public class AttendanceUtil {
 	 * @return 判定結果
 	 */
 	public boolean isWorkDay(Integer courseId, Date trainingDate) {
-		Integer count = mSectionMapper.getSectionCountByCourseId(courseId, trainingDate);
-		if (count > 0) {
-			return true;
-		}
-		return false;
+		return courseCalendarUtil.isWorkDay(courseId, trainingDate);
 	}
 
 	/**
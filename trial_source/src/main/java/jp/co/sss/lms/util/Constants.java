@@ -77,6 +77,12 @@ public interface Constants {
 	public static final String VALID_KEY_ATTENDANCE_REPORT_REQUIRED = "attendance.report.required";
 	public static final String VALID_KEY_ATTENDANCE_COMPANY_JOSEIKININFOISNOTEXISTS = "attendance.company.joseiKinInfoIsNotExists";
 	public static final String VALID_KEY_ATTENDANCE_BLANKTIMEERROR = "attendance.blankTimeError";
+	public static final String VALID_KEY_ATTENDANCE_BLANKTIMEERRORBULK = "attendance.blankTimeErrorBulk";
+	public static final String VALID_KEY_ATTENDANCE_NOTWORKDAYBULK = "attendance.notWorkDayBulk";
+	public static final String VALID_KEY_ATTENDANCE_BULK_FORMATERROR = "attendance.bulk.formatError";
+	public static final String VALID_KEY_ATTENDANCE_BULK_NOTSTUDENT = "attendance.bulk.notStudent";
+	public static final String VALID_KEY_ATTENDANCE_BULK_DUPLICATE = "attendance.bulk.duplicate";
+	public static final String VALID_KEY_ATTENDANCE_BULK_FILETYPE = "attendance.bulk.fileType";
 	public static final String VALID_KEY_SKILLSHEET_NOTRECENT = "skillsheet.notrecent";
 	public static final String VALID_KEY_UNQ_COMPANYCOURSE = "unq.companyCourse";
 	public static final String VALID_KEY_NOT_LATEST = "not.latest";
@@ -166,6 +172,8 @@ public interface Constants {
 	public static final String PROP_KEY_MAIL_MAILFAILED_SUBJECT = "mail.mailfailed.subject";
 	public static final String PROP_KEY_MAIL_MAILFAILED_BODY = "mail.mailfailed.body";
 	public static final String PROP_KEY_ATTENDANCE_UPDATE_NOTICE = "attendance.update.notice";
+	public static final String PROP_KEY_ATTENDANCE_BULKREGIST_NOTICE = "attendance.bulkRegist.notice";
+	public static final String PROP_KEY_EXAM_DELETERESULTLIST_NOTICE = "exam.deleteResultList.notice";
 	public static final String PROP_KEY_ATTENDANCE_COMPANY_JOSEIKININFOISNOTEXISTS = "attendance.company.joseiKinInfoIsNotExists";
 	public static final String PROP_KEY_REGIST_COMPLETE = "regist.complete";
 	public static final String PROP_KEY_UPDATE_COMPLETE = "update.complete";
@@ -289,6 +297,15 @@ public interface Constants {
 	/** 勤怠タイプ：退勤 */
 	public static final short CODE_VAL_LEAVING = 1;
 
+	/** 退勤打刻結果：正常終了 */
+	public static final int PUNCH_OUT_RESULT_SUCCESS = 0;
+	/** 退勤打刻結果：出勤情報なし */
+	public static final int PUNCH_OUT_RESULT_PUNCHINEMPTY = 1;
+	/** 退勤打刻結果：入力済み */
+	public static final int PUNCH_OUT_RESULT_ALREADYEXISTS = 2;
+	/** 退勤打刻結果：出勤時刻より前 */
+	public static final int PUNCH_OUT_RESULT_TRAININGTIMERANGE = 3;
+
 	/** チケットに対する状態：着手中 */
 	public static final Short CODE_VAL_TICKET_STATUS_START = 1;
 	/** チケットに対する状態：成果物確認中 */
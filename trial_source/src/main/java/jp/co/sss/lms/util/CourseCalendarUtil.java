@@ -0,0 +1,163 @@
+package jp.co.sss.lms.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.entity.MSection;
+import jp.co.sss.lms.mapper.MSectionMapper;
+
+/**
+ * コース研修日カレンダーユーティリティ<br>
+ * コース毎のセクション日付をメモリ上に保持し、研修日の判定をDBへ問い合わせずに行う。
+ * セクションマスタは本システム外で登録・更新されるため、変更の反映は保持時間の経過による再読込のみで行う
+ * （変更後、最大で保持時間分は変更前のセクション日付で判定される）。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class CourseCalendarUtil {
+
+	@Autowired
+	private MSectionMapper mSectionMapper;
+
+	/** カレンダーの保持時間（分） */
+	@Value("${setting.cache.courseCalendar.minute}")
+	private long expireMinute;
+
+	/** コースIDをキーとしたカレンダー */
+	private final ConcurrentMap<Integer, CourseCalendar> calendarMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 研修日の判定
+	 * 
+	 * @param courseId
+	 * @param trainingDate
+	 * @return 判定結果
+	 */
+	public boolean isWorkDay(Integer courseId, Date trainingDate) {
+		if (courseId == null || trainingDate == null) {
+			return false;
+		}
+		return getCalendar(courseId).isWorkDay(toEpochDay(trainingDate));
+	}
+
+	/**
+	 * コースのセクションリスト取得（日付昇順）
+	 * 
+	 * @param courseId
+	 * @return セクションマスタエンティティリスト（変更不可）
+	 */
+	public List<MSection> getSectionList(Integer courseId) {
+		if (courseId == null) {
+			return Collections.emptyList();
+		}
+		return getCalendar(courseId).sectionList;
+	}
+
+	/**
+	 * 日付をエポック日（1970/1/1からの日数）に変換
+	 * 
+	 * @param date
+	 * @return エポック日
+	 */
+	public long toEpochDay(Date date) {
+		// java.sql.DateはtoInstant()が使用できないため、ミリ秒から変換する
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate()
+				.toEpochDay();
+	}
+
+	/**
+	 * カレンダー取得<br>
+	 * 未読込または保持時間を過ぎている場合はDBから読み込む。同一コースの読込は1回に集約される。
+	 * 
+	 * @param courseId
+	 * @return カレンダー
+	 */
+	private CourseCalendar getCalendar(Integer courseId) {
+		long now = System.currentTimeMillis();
+		CourseCalendar calendar = calendarMap.get(courseId);
+		if (calendar != null && !calendar.isExpired(now, expireMinute)) {
+			return calendar;
+		}
+		return calendarMap.compute(courseId, (key, current) -> {
+			if (current != null && !current.isExpired(now, expireMinute)) {
+				return current;
+			}
+			return load(key, now);
+		});
+	}
+
+	/**
+	 * カレンダーの読込
+	 * 
+	 * @param courseId
+	 * @param now
+	 * @return カレンダー
+	 */
+	private CourseCalendar load(Integer courseId, long now) {
+		List<MSection> sectionList = mSectionMapper.findByCourseId(courseId,
+				Constants.DB_FLG_FALSE);
+		long firstEpochDay = 0;
+		BitSet workDays = new BitSet();
+		for (MSection mSection : sectionList) {
+			if (mSection.getDate() == null) {
+				continue;
+			}
+			long epochDay = toEpochDay(mSection.getDate());
+			if (workDays.isEmpty()) {
+				firstEpochDay = epochDay;
+			}
+			// 日付昇順で取得しているため、先頭の日付からの差分が添字となる
+			workDays.set((int) (epochDay - firstEpochDay));
+		}
+		return new CourseCalendar(firstEpochDay, workDays, Collections.unmodifiableList(sectionList),
+				now);
+	}
+
+	/**
+	 * コース研修日カレンダー
+	 */
+	private static final class CourseCalendar {
+
+		/** 最初の研修日（エポック日） */
+		private final long firstEpochDay;
+		/** 研修日（最初の研修日からの日数） */
+		private final BitSet workDays;
+		/** セクションリスト */
+		private final List<MSection> sectionList;
+		/** 読込日時（ミリ秒） */
+		private final long loadedTime;
+
+		private CourseCalendar(long firstEpochDay, BitSet workDays, List<MSection> sectionList,
+				long loadedTime) {
+			this.firstEpochDay = firstEpochDay;
+			this.workDays = workDays;
+			this.sectionList = sectionList;
+			this.loadedTime = loadedTime;
+		}
+
+		private boolean isWorkDay(long epochDay) {
+			long index = epochDay - firstEpochDay;
+			if (workDays.isEmpty() || index < 0 || index >= workDays.length()) {
+				return false;
+			}
+			return workDays.get((int) index);
+		}
+
+		private boolean isExpired(long now, long expireMinute) {
+			return now - loadedTime >= TimeUnit.MINUTES.toMillis(expireMinute);
+		}
+	}
+
+}
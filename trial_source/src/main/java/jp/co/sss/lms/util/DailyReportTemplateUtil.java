@@ -0,0 +1,112 @@
+package jp.co.sss.lms.util;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.mapper.TCourseDailyReportMapper;
+import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
+
+/**
+ * 日報テンプレートユーティリティ<br>
+ * 日報マスタ・日報詳細マスタの内容はコース（またはセクション）の受講生全員で共通のため、
+ * 日報ID＋コース（セクション）紐付け単位でメモリ上に保持する。
+ * 紐付けが無いことも保持し、コース→セクションの順の判定をDBへ問い合わせずに行う。
+ * 日報マスタ・日報詳細マスタ・日報紐付けは本システム外で登録・更新されるため、変更の反映は保持時間の経過による再読込のみで行う。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class DailyReportTemplateUtil {
+
+	@Autowired
+	private TCourseDailyReportMapper tCourseDailyReportMapper;
+	@Autowired
+	private TSectionDailyReportMapper tSectionDailyReportMapper;
+
+	/** テンプレートの保持時間（分） */
+	@Value("${setting.cache.dailyReportTemplate.minute}")
+	private long expireMinute;
+
+	/** 紐付け種別＋日報ID＋コース（セクション）ID＋アカウントIDをキーとしたテンプレート */
+	private final ConcurrentMap<String, CachedTemplate> templateMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 日報テンプレートの取得<br>
+	 * コースに紐づく日報を優先し、無い場合はセクションに紐づく日報を返す。
+	 * 返却するテンプレートは全利用者で共有するため変更しないこと。
+	 *
+	 * @param dailyReportId
+	 * @param courseId
+	 * @param sectionId
+	 * @param accountId
+	 * @return レポートDTO（提出内容を含まない、紐付けが無い場合はnull）
+	 */
+	public DailyReportDto getTemplate(Integer dailyReportId, Integer courseId, Integer sectionId,
+			Integer accountId) {
+		DailyReportDto template = getCached("C:" + dailyReportId + ":" + courseId + ":" + accountId,
+				() -> tCourseDailyReportMapper.getDailyReportTemplate(dailyReportId, courseId,
+						accountId, Constants.DB_FLG_FALSE));
+		if (template != null) {
+			return template;
+		}
+		return getCached("S:" + dailyReportId + ":" + sectionId + ":" + accountId,
+				() -> tSectionDailyReportMapper.getDailyReportTemplate(dailyReportId, sectionId,
+						accountId, Constants.DB_FLG_FALSE));
+	}
+
+	/**
+	 * 保持しているテンプレートの取得<br>
+	 * 未読込または保持時間を過ぎている場合はDBから読み込む。同一キーの読込は1回に集約される。
+	 *
+	 * @param key
+	 * @param loader
+	 * @return レポートDTO（紐付けが無い場合はnull）
+	 */
+	private DailyReportDto getCached(String key, Supplier<DailyReportDto> loader) {
+		long now = System.currentTimeMillis();
+		CachedTemplate cached = templateMap.get(key);
+		if (cached != null && !cached.isExpired(now, expireMinute)) {
+			return cached.template;
+		}
+		return templateMap.compute(key, (k, current) -> {
+			if (current != null && !current.isExpired(now, expireMinute)) {
+				return current;
+			}
+			DailyReportDto template = loader.get();
+			if (template != null) {
+				template.setDailyReportDetailDtoList(
+						Collections.unmodifiableList(template.getDailyReportDetailDtoList()));
+			}
+			return new CachedTemplate(template, now);
+		}).template;
+	}
+
+	/**
+	 * 保持中のテンプレート
+	 */
+	private static final class CachedTemplate {
+
+		/** テンプレート（紐付けが無い場合はnull） */
+		private final DailyReportDto template;
+		/** 読込日時（ミリ秒） */
+		private final long loadedTime;
+
+		private CachedTemplate(DailyReportDto template, long loadedTime) {
+			this.template = template;
+			this.loadedTime = loadedTime;
+		}
+
+		private boolean isExpired(long now, long expireMinute) {
+			return now - loadedTime >= TimeUnit.MINUTES.toMillis(expireMinute);
+		}
+	}
+
+}
@@ -0,0 +1,245 @@
+package jp.co.sss.lms.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 受験中試験ユーティリティ<br>
+ * 受験中の試験の回答と開始日時をLMSユーザーID＋試験・セクション紐づけID単位でメモリ上に保持する。
+ * 経過時間はサーバーの開始日時から算出し、画面から送信された経過時間は使用しない。
+ * 制限時間に猶予時間を加えた時刻を過ぎた受験は破棄し、保持件数が上限に達した場合は最も古い受験を破棄する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExamAttemptUtil {
+
+	/** 保持する受験数の上限 */
+	@Value("${setting.exam.attempt.maxSize}")
+	private int maxSize;
+	/** 制限時間経過後に保持する猶予時間（分） */
+	@Value("${setting.exam.attempt.graceMinute}")
+	private long graceMinute;
+
+	/** LMSユーザーID（上位32bit）＋試験・セクション紐づけID（下位32bit）をキーとした受験 */
+	private final ConcurrentMap<Long, ExamAttempt> attemptMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 受験の取得（存在しない場合は開始）<br>
+	 * 期限切れの受験、または試験・問題数が異なる受験は新たに開始し直す。
+	 *
+	 * @param lmsUserId
+	 * @param examSectionId
+	 * @param examId
+	 * @param questionCount 問題数
+	 * @param limitTime     制限時間（分）
+	 * @return 受験
+	 */
+	public ExamAttempt getOrStart(Integer lmsUserId, Integer examSectionId, Integer examId,
+			int questionCount, int limitTime) {
+		long now = System.currentTimeMillis();
+		ExamAttempt attempt = attemptMap.compute(toKey(lmsUserId, examSectionId),
+				(key, current) -> {
+					if (current != null && !current.isExpired(now)
+							&& current.examId.equals(examId)
+							&& current.replies.length == questionCount) {
+						return current;
+					}
+					long expireTime = now + TimeUnit.MINUTES.toMillis(limitTime + graceMinute);
+					return new ExamAttempt(examId, questionCount, limitTime, now, expireTime);
+				});
+		if (attemptMap.size() > maxSize) {
+			evict(now);
+		}
+		return attempt;
+	}
+
+	/**
+	 * 受験の取得
+	 *
+	 * @param lmsUserId
+	 * @param examSectionId
+	 * @return 受験（存在しない・期限切れの場合はnull）
+	 */
+	public ExamAttempt get(Integer lmsUserId, Integer examSectionId) {
+		if (lmsUserId == null || examSectionId == null) {
+			return null;
+		}
+		ExamAttempt attempt = attemptMap.get(toKey(lmsUserId, examSectionId));
+		if (attempt == null || attempt.isExpired(System.currentTimeMillis())) {
+			return null;
+		}
+		return attempt;
+	}
+
+	/**
+	 * 受験の終了<br>
+	 * 試験結果を登録した場合に呼び出す。
+	 *
+	 * @param lmsUserId
+	 * @param examSectionId
+	 * @param attempt       終了する受験（別の受験が開始されている場合は破棄しない）
+	 */
+	public void finish(Integer lmsUserId, Integer examSectionId, ExamAttempt attempt) {
+		attemptMap.remove(toKey(lmsUserId, examSectionId), attempt);
+	}
+
+	/**
+	 * 保持件数の取得
+	 *
+	 * @return 保持件数
+	 */
+	public int size() {
+		return attemptMap.size();
+	}
+
+	/**
+	 * 期限切れの受験の破棄
+	 */
+	@Scheduled(fixedDelay = 60000)
+	public void purge() {
+		long now = System.currentTimeMillis();
+		attemptMap.values().removeIf(attempt -> attempt.isExpired(now));
+	}
+
+	/**
+	 * 上限を超えた場合に期限切れの受験を破棄し、それでも超える場合は最も古く開始された受験を破棄する
+	 *
+	 * @param now
+	 */
+	private void evict(long now) {
+		purge();
+		while (attemptMap.size() > maxSize) {
+			Long oldestKey = null;
+			long oldestTime = Long.MAX_VALUE;
+			for (Map.Entry<Long, ExamAttempt> entry : attemptMap.entrySet()) {
+				if (entry.getValue().startTime < oldestTime) {
+					oldestKey = entry.getKey();
+					oldestTime = entry.getValue().startTime;
+				}
+			}
+			if (oldestKey == null) {
+				return;
+			}
+			attemptMap.remove(oldestKey);
+		}
+	}
+
+	private static long toKey(Integer lmsUserId, Integer examSectionId) {
+		return ((long) lmsUserId << 32) | (examSectionId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * 受験<br>
+	 * 回答は問題ID昇順のbyte配列（未回答は0）で保持する。
+	 */
+	public static final class ExamAttempt {
+
+		/** 試験ID */
+		private final Integer examId;
+		/** 回答 */
+		private final byte[] replies;
+		/** 制限時間（ミリ秒） */
+		private final long limitMillis;
+		/** 開始日時（ミリ秒） */
+		private final long startTime;
+		/** 破棄日時（ミリ秒） */
+		private final long expireTime;
+
+		private ExamAttempt(Integer examId, int questionCount, int limitTime, long startTime,
+				long expireTime) {
+			this.examId = examId;
+			this.replies = new byte[questionCount];
+			this.limitMillis = TimeUnit.MINUTES.toMillis(limitTime);
+			this.startTime = startTime;
+			this.expireTime = expireTime;
+		}
+
+		/**
+		 * 問題数の取得
+		 *
+		 * @return 問題数
+		 */
+		public int getQuestionCount() {
+			return replies.length;
+		}
+
+		/**
+		 * 回答の保存
+		 *
+		 * @param index 問題の添字
+		 * @param reply 回答（1～4、未回答は0）
+		 * @return 保存した場合true（添字・回答が範囲外の場合はfalse）
+		 */
+		public synchronized boolean setReply(int index, int reply) {
+			if (index < 0 || index >= replies.length || reply < 0 || reply > 4) {
+				return false;
+			}
+			replies[index] = (byte) reply;
+			return true;
+		}
+
+		/**
+		 * 画面の回答の保存<br>
+		 * 回答済みの問題のみ上書きする。
+		 *
+		 * @param answer 画面の回答（null・要素null可）
+		 */
+		public synchronized void setAnswer(Short[] answer) {
+			if (answer == null) {
+				return;
+			}
+			for (int i = 0; i < answer.length && i < replies.length; i++) {
+				if (answer[i] != null) {
+					setReply(i, answer[i]);
+				}
+			}
+		}
+
+		/**
+		 * 回答の取得（複製）
+		 *
+		 * @return 回答
+		 */
+		public synchronized byte[] getReplies() {
+			return replies.clone();
+		}
+
+		/**
+		 * 画面の回答の取得
+		 *
+		 * @return 画面の回答（未回答はnull）
+		 */
+		public synchronized Short[] getAnswer() {
+			Short[] answer = new Short[replies.length];
+			for (int i = 0; i < replies.length; i++) {
+				answer[i] = (replies[i] == ExamScoringUtil.NO_REPLY) ? null : (short) replies[i];
+			}
+			return answer;
+		}
+
+		/**
+		 * 経過時間の取得（制限時間が設定されている場合は制限時間を上限とする）
+		 *
+		 * @return 経過時間（ミリ秒）
+		 */
+		public int getElapsedTime() {
+			long elapsed = Math.max(System.currentTimeMillis() - startTime, 0);
+			if (limitMillis > 0) {
+				elapsed = Math.min(elapsed, limitMillis);
+			}
+			return (int) Math.min(elapsed, Integer.MAX_VALUE);
+		}
+
+		private boolean isExpired(long now) {
+			return now >= expireTime;
+		}
+	}
+
+}
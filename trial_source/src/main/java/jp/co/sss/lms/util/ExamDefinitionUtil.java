@@ -0,0 +1,261 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.util.ExamScoringUtil.ExamScore;
+
+/**
+ * 試験定義ユーティリティ<br>
+ * 試験問題と正答を試験ID単位でメモリ上に保持する。
+ * 保持時間を過ぎた場合はバージョン（試験・問題の最終更新日時と問題数）のみ確認し、変更があった場合に読み込み直す。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExamDefinitionUtil {
+
+	@Autowired
+	private MExamMapper mExamMapper;
+
+	/** バージョン確認の間隔（秒） */
+	@Value("${setting.cache.examDefinition.checkSecond}")
+	private long checkSecond;
+	/** 保持する試験数の上限 */
+	@Value("${setting.cache.examDefinition.maxSize}")
+	private int maxSize;
+
+	/** 試験IDをキーとした試験定義 */
+	private final ConcurrentMap<Integer, ExamDefinition> definitionMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 試験定義の取得
+	 *
+	 * @param examId
+	 * @return 試験定義（試験が存在しない場合はnull）
+	 */
+	public ExamDefinition getExamDefinition(Integer examId) {
+		if (examId == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		ExamDefinition definition = definitionMap.get(examId);
+		if (definition != null && !definition.isCheckRequired(now, checkSecond)) {
+			return definition;
+		}
+		// 同一試験の確認・読込は1回に集約される
+		definition = definitionMap.compute(examId, (key, current) -> {
+			if (current != null && !current.isCheckRequired(now, checkSecond)) {
+				return current;
+			}
+			String version = mExamMapper.getExamVersion(key, Constants.DB_FLG_FALSE);
+			if (version == null) {
+				return null;
+			}
+			if (current != null && version.equals(current.version)) {
+				current.checkedTime = now;
+				return current;
+			}
+			return load(key, version, now);
+		});
+		if (definition != null && definitionMap.size() > maxSize) {
+			evict(examId);
+		}
+		return definition;
+	}
+
+	/**
+	 * 保持件数の取得
+	 *
+	 * @return 保持件数
+	 */
+	public int size() {
+		return definitionMap.size();
+	}
+
+	/**
+	 * 試験定義の読込
+	 *
+	 * @param examId
+	 * @param version
+	 * @param now
+	 * @return 試験定義
+	 */
+	private ExamDefinition load(Integer examId, String version, long now) {
+		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examId,
+				Constants.DB_FLG_FALSE);
+		if (examQuestionDto == null) {
+			return null;
+		}
+		List<QuestionDto> questionDtoList = examQuestionDto.getQuestionDtoList();
+		int questionCount = questionDtoList.size();
+		int[] questionIds = new int[questionCount];
+		byte[] answerKey = new byte[questionCount];
+		int[] genreIndexes = new int[questionCount];
+		List<String> genreNames = new ArrayList<>();
+		Map<String, Integer> genreIndexMap = new HashMap<>();
+		List<QuestionDto> publicQuestionDtoList = new ArrayList<>(questionCount);
+		for (int i = 0; i < questionCount; i++) {
+			QuestionDto questionDto = questionDtoList.get(i);
+			questionIds[i] = questionDto.getQuestionId();
+			answerKey[i] = (questionDto.getAnswerNum() == null) ? 0
+					: questionDto.getAnswerNum().byteValue();
+			// ジャンル名は出題順に番号を振る（ジャンル未設定の問題はnullを1ジャンルとする）
+			genreIndexes[i] = genreIndexMap.computeIfAbsent(questionDto.getGenreDetailName(),
+					genreDetailName -> {
+						genreNames.add(genreDetailName);
+						return genreNames.size() - 1;
+					});
+			// 画面に渡す問題には正答を含めない
+			questionDto.setAnswerNum(null);
+			questionDto.setAnswerList(Collections.unmodifiableList(Arrays.asList(
+					questionDto.getChoice1(), questionDto.getChoice2(),
+					questionDto.getChoice3(), questionDto.getChoice4())));
+			publicQuestionDtoList.add(questionDto);
+		}
+		examQuestionDto.setQuestionDtoList(Collections.unmodifiableList(publicQuestionDtoList));
+		return new ExamDefinition(examQuestionDto, questionIds, answerKey, genreIndexes,
+				Collections.unmodifiableList(genreNames), version, now);
+	}
+
+	/**
+	 * 上限を超えた場合に最も古く確認された試験定義を破棄する
+	 *
+	 * @param examId 取得中の試験ID（破棄しない）
+	 */
+	private void evict(Integer examId) {
+		Integer oldestExamId = null;
+		long oldestTime = Long.MAX_VALUE;
+		for (Map.Entry<Integer, ExamDefinition> entry : definitionMap.entrySet()) {
+			if (!entry.getKey().equals(examId) && entry.getValue().checkedTime < oldestTime) {
+				oldestExamId = entry.getKey();
+				oldestTime = entry.getValue().checkedTime;
+			}
+		}
+		if (oldestExamId != null) {
+			definitionMap.remove(oldestExamId);
+		}
+	}
+
+	/**
+	 * 試験定義<br>
+	 * 保持している内容は全試験受験者で共有するため変更しないこと。
+	 */
+	public static final class ExamDefinition {
+
+		/** 試験問題DTO（正答を除く） */
+		private final ExamQuestionDto examQuestionDto;
+		/** 問題ID（問題ID昇順） */
+		private final int[] questionIds;
+		/** 正答（問題ID昇順、未設定の場合は0） */
+		private final byte[] answerKey;
+		/** 問題ごとのジャンル番号（ジャンル名リストの添字） */
+		private final int[] genreIndexes;
+		/** ジャンル名リスト（出題順） */
+		private final List<String> genreNames;
+		/** バージョン */
+		private final String version;
+		/** バージョン確認日時（ミリ秒） */
+		private volatile long checkedTime;
+
+		private ExamDefinition(ExamQuestionDto examQuestionDto, int[] questionIds,
+				byte[] answerKey, int[] genreIndexes, List<String> genreNames, String version,
+				long checkedTime) {
+			this.examQuestionDto = examQuestionDto;
+			this.questionIds = questionIds;
+			this.answerKey = answerKey;
+			this.genreIndexes = genreIndexes;
+			this.genreNames = genreNames;
+			this.version = version;
+			this.checkedTime = checkedTime;
+		}
+
+		/**
+		 * 試験問題DTOの複製を取得<br>
+		 * 問題DTOリストは問題DTOごと複製するため、呼び出し元で変更できる。
+		 *
+		 * @return 試験問題DTO
+		 */
+		public ExamQuestionDto copyExamQuestionDto() {
+			ExamQuestionDto copy = new ExamQuestionDto();
+			BeanUtils.copyProperties(examQuestionDto, copy);
+			List<QuestionDto> questionDtoList = new ArrayList<>(
+					examQuestionDto.getQuestionDtoList().size());
+			for (QuestionDto questionDto : examQuestionDto.getQuestionDtoList()) {
+				QuestionDto questionCopy = new QuestionDto();
+				BeanUtils.copyProperties(questionDto, questionCopy);
+				questionDtoList.add(questionCopy);
+			}
+			copy.setQuestionDtoList(questionDtoList);
+			return copy;
+		}
+
+		/**
+		 * 問題数の取得
+		 *
+		 * @return 問題数
+		 */
+		public int getQuestionCount() {
+			return questionIds.length;
+		}
+
+		/**
+		 * 制限時間の取得
+		 *
+		 * @return 制限時間（分、未設定の場合は0）
+		 */
+		public int getLimitTime() {
+			Integer limitTime = examQuestionDto.getLimitTime();
+			return (limitTime == null) ? 0 : limitTime;
+		}
+
+		/**
+		 * 問題IDの取得
+		 *
+		 * @param index 問題の添字（問題ID昇順）
+		 * @return 問題ID
+		 */
+		public int getQuestionId(int index) {
+			return questionIds[index];
+		}
+
+		/**
+		 * ジャンル名リストの取得
+		 *
+		 * @return ジャンル名リスト（添字が採点結果のジャンル番号）
+		 */
+		public List<String> getGenreNames() {
+			return genreNames;
+		}
+
+		/**
+		 * 採点
+		 *
+		 * @param replies 回答（問題ID昇順、未回答は0）
+		 * @return 採点結果
+		 */
+		public ExamScore score(byte[] replies) {
+			return ExamScoringUtil.score(answerKey, replies, genreIndexes, genreNames.size());
+		}
+
+		private boolean isCheckRequired(long now, long checkSecond) {
+			return now - checkedTime >= TimeUnit.SECONDS.toMillis(checkSecond);
+		}
+	}
+
+}
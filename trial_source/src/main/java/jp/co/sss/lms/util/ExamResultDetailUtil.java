@@ -0,0 +1,179 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+
+/**
+ * 試験結果詳細ユーティリティ<br>
+ * 試験結果は登録後に変更されないため、回答リスト設定済みの試験結果詳細を試験結果ID単位でメモリ上に保持する。
+ * 試験結果を論理削除した場合のみ破棄する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExamResultDetailUtil {
+
+	@Autowired
+	private TExamResultMapper tExamResultMapper;
+
+	/** 保持する試験結果数の上限 */
+	@Value("${setting.cache.examResultDetail.maxSize}")
+	private int maxSize;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 試験結果IDをキーとした試験結果詳細 */
+	private final ConcurrentMap<Integer, CachedDetail> detailMap = new ConcurrentHashMap<>();
+	/** ヒット件数（前回出力以降） */
+	private final LongAdder hitCount = new LongAdder();
+	/** ミス件数（前回出力以降） */
+	private final LongAdder missCount = new LongAdder();
+
+	/**
+	 * 試験結果詳細の取得<br>
+	 * 返却する試験結果詳細は全利用者で共有するため変更しないこと。
+	 *
+	 * @param examResultId
+	 * @return 試験結果詳細DTO（存在しない場合はnull）
+	 */
+	public ExamResultDetailDto getExamResultDetail(Integer examResultId) {
+		if (examResultId == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		CachedDetail cached = detailMap.get(examResultId);
+		if (cached != null) {
+			hitCount.increment();
+			cached.accessTime = now;
+			return cached.examResultDetailDto;
+		}
+		missCount.increment();
+		// 読込中に論理削除された場合も、破棄は読込の完了を待ってから行われる
+		cached = detailMap.computeIfAbsent(examResultId, key -> load(key, now));
+		if (cached == null) {
+			return null;
+		}
+		if (detailMap.size() > maxSize) {
+			evict(examResultId);
+		}
+		return cached.examResultDetailDto;
+	}
+
+	/**
+	 * 試験結果詳細の破棄<br>
+	 * 試験結果を論理削除した場合に呼び出す。トランザクション中の場合はコミット後に破棄する。
+	 *
+	 * @param examResultIdList
+	 */
+	public void invalidate(Collection<Integer> examResultIdList) {
+		if (examResultIdList == null || examResultIdList.isEmpty()) {
+			return;
+		}
+		List<Integer> targetList = new ArrayList<>(examResultIdList);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					targetList.forEach(detailMap::remove);
+				}
+			});
+		} else {
+			targetList.forEach(detailMap::remove);
+		}
+	}
+
+	/**
+	 * 利用状況の出力<br>
+	 * 前回出力以降のヒット・ミス件数と保持件数をログに出力する（取得が無かった場合は出力しない）。
+	 */
+	@Scheduled(fixedDelayString = "${setting.cache.examResultDetail.logDelayMillis}")
+	public void logStats() {
+		long hit = hitCount.sumThenReset();
+		long miss = missCount.sumThenReset();
+		if (hit + miss == 0) {
+			return;
+		}
+		logger.info("試験結果詳細キャッシュ ヒット=" + hit + "件 ミス=" + miss + "件 ヒット率="
+				+ (hit * 100 / (hit + miss)) + "% 保持件数=" + detailMap.size());
+	}
+
+	/**
+	 * 試験結果詳細の読込
+	 *
+	 * @param examResultId
+	 * @param now
+	 * @return 試験結果詳細（存在しない場合はnull）
+	 */
+	private CachedDetail load(Integer examResultId, long now) {
+		ExamResultDetailDto examResultDetailDto = tExamResultMapper
+				.getExamResultDetail(examResultId, Constants.DB_FLG_FALSE);
+		if (examResultDetailDto == null) {
+			return null;
+		}
+		// 試験結果詳細を基に試験結果詳細DTO．問題DTOリスト．回答リストを設定
+		for (QuestionDto questionDto : examResultDetailDto.getQuestionDtoList()) {
+			questionDto.setAnswerList(Collections.unmodifiableList(Arrays.asList(
+					questionDto.getChoice1(), questionDto.getChoice2(),
+					questionDto.getChoice3(), questionDto.getChoice4())));
+		}
+		examResultDetailDto.setQuestionDtoList(
+				Collections.unmodifiableList(examResultDetailDto.getQuestionDtoList()));
+		return new CachedDetail(examResultDetailDto, now);
+	}
+
+	/**
+	 * 上限を超えた場合に最も長く参照されていない試験結果詳細を破棄する
+	 *
+	 * @param examResultId 取得中の試験結果ID（破棄しない）
+	 */
+	private void evict(Integer examResultId) {
+		Integer oldestExamResultId = null;
+		long oldestTime = Long.MAX_VALUE;
+		for (Map.Entry<Integer, CachedDetail> entry : detailMap.entrySet()) {
+			if (!entry.getKey().equals(examResultId) && entry.getValue().accessTime < oldestTime) {
+				oldestExamResultId = entry.getKey();
+				oldestTime = entry.getValue().accessTime;
+			}
+		}
+		if (oldestExamResultId != null) {
+			detailMap.remove(oldestExamResultId);
+		}
+	}
+
+	/**
+	 * 保持中の試験結果詳細
+	 */
+	private static final class CachedDetail {
+
+		/** 試験結果詳細DTO */
+		private final ExamResultDetailDto examResultDetailDto;
+		/** 最終参照日時（ミリ秒） */
+		private volatile long accessTime;
+
+		private CachedDetail(ExamResultDetailDto examResultDetailDto, long accessTime) {
+			this.examResultDetailDto = examResultDetailDto;
+			this.accessTime = accessTime;
+		}
+	}
+
+}
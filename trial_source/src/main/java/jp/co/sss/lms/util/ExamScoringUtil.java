@@ -0,0 +1,181 @@
+package jp.co.sss.lms.util;
+
+import java.util.BitSet;
+
+/**
+ * 試験採点ユーティリティ<br>
+ * 正答・回答は問題ID昇順のbyte配列（1～4、未回答・未設定は0）で扱い、
+ * 得点・問題ごとの正誤・ジャンル別小計を1回の走査で求める。
+ * 試験結果詳細の一括再採点にも使用できる。
+ *
+ * @author 東京ITスクール
+ */
+public final class ExamScoringUtil {
+
+	/** 未回答 */
+	public static final byte NO_REPLY = 0;
+
+	private ExamScoringUtil() {
+	}
+
+	/**
+	 * 画面の回答を採点用の回答配列に変換
+	 *
+	 * @param answer        画面の回答（null・要素null可）
+	 * @param questionCount 問題数
+	 * @return 回答配列（問題数の長さ、未回答は0）
+	 */
+	public static byte[] toReplies(Short[] answer, int questionCount) {
+		byte[] replies = new byte[questionCount];
+		if (answer == null) {
+			return replies;
+		}
+		int length = Math.min(answer.length, questionCount);
+		for (int i = 0; i < length; i++) {
+			if (answer[i] != null) {
+				replies[i] = answer[i].byteValue();
+			}
+		}
+		return replies;
+	}
+
+	/**
+	 * 採点（1問1点）
+	 *
+	 * @param answerKey    正答
+	 * @param replies      回答（正答より短い場合、不足分は未回答）
+	 * @param genreIndexes 問題ごとのジャンル番号（0～genreCount-1）
+	 * @param genreCount   ジャンル数
+	 * @return 採点結果
+	 */
+	public static ExamScore score(byte[] answerKey, byte[] replies, int[] genreIndexes,
+			int genreCount) {
+		return score(answerKey, replies, null, genreIndexes, genreCount);
+	}
+
+	/**
+	 * 採点（問題ごとの配点指定）
+	 *
+	 * @param answerKey    正答
+	 * @param replies      回答（正答より短い場合、不足分は未回答）
+	 * @param points       問題ごとの配点（nullの場合は1問1点）
+	 * @param genreIndexes 問題ごとのジャンル番号（0～genreCount-1）
+	 * @param genreCount   ジャンル数
+	 * @return 採点結果
+	 */
+	public static ExamScore score(byte[] answerKey, byte[] replies, int[] points,
+			int[] genreIndexes, int genreCount) {
+		int questionCount = answerKey.length;
+		int replyCount = Math.min(replies.length, questionCount);
+		BitSet correct = new BitSet(questionCount);
+		int[] genreScores = new int[genreCount];
+		int[] genreFullScores = new int[genreCount];
+		int score = 0;
+		int fullScore = 0;
+		for (int i = 0; i < questionCount; i++) {
+			int point = (points == null) ? 1 : points[i];
+			int genreIndex = genreIndexes[i];
+			fullScore += point;
+			genreFullScores[genreIndex] += point;
+			if (i < replyCount && replies[i] != NO_REPLY && replies[i] == answerKey[i]) {
+				correct.set(i);
+				score += point;
+				genreScores[genreIndex] += point;
+			}
+		}
+		return new ExamScore(score, fullScore, correct, genreScores, genreFullScores);
+	}
+
+	/**
+	 * 採点結果
+	 */
+	public static final class ExamScore {
+
+		/** 得点 */
+		private final int score;
+		/** 満点 */
+		private final int fullScore;
+		/** 問題ごとの正誤（正解のビットが立つ） */
+		private final BitSet correct;
+		/** ジャンル別得点 */
+		private final int[] genreScores;
+		/** ジャンル別満点 */
+		private final int[] genreFullScores;
+
+		private ExamScore(int score, int fullScore, BitSet correct, int[] genreScores,
+				int[] genreFullScores) {
+			this.score = score;
+			this.fullScore = fullScore;
+			this.correct = correct;
+			this.genreScores = genreScores;
+			this.genreFullScores = genreFullScores;
+		}
+
+		/**
+		 * 得点の取得
+		 *
+		 * @return 得点
+		 */
+		public int getScore() {
+			return score;
+		}
+
+		/**
+		 * 満点の取得
+		 *
+		 * @return 満点
+		 */
+		public int getFullScore() {
+			return fullScore;
+		}
+
+		/**
+		 * 正誤の取得
+		 *
+		 * @param index 問題の添字
+		 * @return 正解の場合true
+		 */
+		public boolean isCorrect(int index) {
+			return correct.get(index);
+		}
+
+		/**
+		 * 正解数の取得
+		 *
+		 * @return 正解数
+		 */
+		public int getCorrectCount() {
+			return correct.cardinality();
+		}
+
+		/**
+		 * 正誤の取得（複製）
+		 *
+		 * @return 問題ごとの正誤
+		 */
+		public BitSet getCorrect() {
+			return (BitSet) correct.clone();
+		}
+
+		/**
+		 * ジャンル別得点の取得
+		 *
+		 * @param genreIndex ジャンル番号
+		 * @return ジャンル別得点
+		 */
+		public int getGenreScore(int genreIndex) {
+			return genreScores[genreIndex];
+		}
+
+		/**
+		 * ジャンル別満点の取得
+		 *
+		 * @param genreIndex ジャンル番号
+		 * @return ジャンル別満点
+		 */
+		public int getGenreFullScore(int genreIndex) {
+			return genreFullScores[genreIndex];
+		}
+	}
+
+}
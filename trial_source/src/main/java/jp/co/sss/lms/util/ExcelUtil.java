@@ -1,13 +1,29 @@
 package jp.co.sss.lms.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -46,14 +62,21 @@ public class ExcelUtil {
 	public static final String MAX_COL_STR = CellReference.convertNumToColString(ExcelUtil.MAX_COL_NUM - 1);
 	/* ワークブック初期化 */
 	private Workbook wb = null;
+	/* テンプレートファイルの内容（ファイルパスをキーとする） */
+	private static final ConcurrentMap<String, byte[]> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+	/* テンプレートキャッシュのヒット件数 */
+	private static final LongAdder TEMPLATE_CACHE_HIT = new LongAdder();
+	/* テンプレートキャッシュのミス件数 */
+	private static final LongAdder TEMPLATE_CACHE_MISS = new LongAdder();
 
 	/**
-	 * ファイルパスから作成済みのファイルを開く
+	 * ファイルパスから作成済みのファイルを開く<br>
+	 * テンプレートファイルの読込は初回のみ行い、以降はキャッシュした内容から作成する。
 	 * 
 	 * @param filePath
 	 */
 	public ExcelUtil(String filePath) {
-		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+		try (InputStream in = new ByteArrayInputStream(getTemplate(filePath))) {
 			wb = WorkbookFactory.create(in);
 		} catch (Exception e) {
 			throw new RuntimeException(e);
@@ -73,6 +96,57 @@ public class ExcelUtil {
 		}
 	}
 
+	/**
+	 * 作成済みのワークブックを開く
+	 * 
+	 * @param wb
+	 */
+	public ExcelUtil(Workbook wb) {
+		this.wb = wb;
+	}
+
+	/**
+	 * テンプレートファイルの内容を取得<br>
+	 * クラスパスからの読込は初回のみ行い、以降はキャッシュを返却する。
+	 * 返却した配列は共有しているため、呼び出し元で変更しないこと。
+	 * 
+	 * @param filePath クラスパス上のファイルパス
+	 * @return テンプレートファイルの内容
+	 * @throws IOException
+	 */
+	public static byte[] getTemplate(String filePath) throws IOException {
+		byte[] template = TEMPLATE_CACHE.get(filePath);
+		if (template != null) {
+			TEMPLATE_CACHE_HIT.increment();
+			return template;
+		}
+		TEMPLATE_CACHE_MISS.increment();
+		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+			template = in.readAllBytes();
+		}
+		// 同時に読み込んだ場合は先に登録された内容を使用する
+		byte[] current = TEMPLATE_CACHE.putIfAbsent(filePath, template);
+		return (current != null) ? current : template;
+	}
+
+	/**
+	 * テンプレートキャッシュのヒット件数を取得
+	 * 
+	 * @return ヒット件数
+	 */
+	public static long getTemplateCacheHitCount() {
+		return TEMPLATE_CACHE_HIT.sum();
+	}
+
+	/**
+	 * テンプレートキャッシュのミス件数を取得
+	 * 
+	 * @return ミス件数（クラスパスから読み込んだ件数）
+	 */
+	public static long getTemplateCacheMissCount() {
+		return TEMPLATE_CACHE_MISS.sum();
+	}
+
 	/**
 	 * Excelシート名、行列からセルを取得<br>
 	 * 入力文字(String)がある場合はセルに設定
@@ -205,24 +279,7 @@ public class ExcelUtil {
 						cell2 = row2.createCell(j);
 						cellstyle = cell.getCellStyle();
 						cell2.setCellStyle(cellstyle);
-						switch (cell.getCellType()) {
-						case Cell.CELL_TYPE_STRING:
-							cell2.setCellValue(cell.getRichStringCellValue());
-							break;
-						case Cell.CELL_TYPE_NUMERIC:
-							if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
-								cell2.setCellValue(cell.getDateCellValue());
-							} else {
-								cell2.setCellValue(cell.getNumericCellValue());
-							}
-							break;
-						case Cell.CELL_TYPE_FORMULA:
-							cell2.setCellFormula(cell.getCellFormula());
-							break;
-						case Cell.CELL_TYPE_BOOLEAN:
-							cell2.setCellValue(cell.getBooleanCellValue());
-							break;
-						}
+						copyCellValue(cell, cell2);
 					}
 				}
 			}
@@ -239,6 +296,105 @@ public class ExcelUtil {
 		}
 	}
 
+	/**
+	 * 指定された行範囲を繰り返し複製し、値を設定する<br>
+	 * 範囲内の行の高さ・セルのスタイル・結合状態は最初に1度だけ読み取り、全ての複製を1回の走査で作成する。
+	 * 各範囲への値の設定はその範囲を複製した直後に呼び出し、元の範囲への値の設定は全ての複製後に呼び出す。
+	 * 
+	 * @param sheetName シート名
+	 * @param st        複製する範囲の開始行(start from 0)
+	 * @param en        複製する範囲の最終行(end from 1)
+	 * @param count     範囲の数（元の範囲を含む、0以下の場合は何もしない）
+	 * @param writer    範囲の番号(start from 0)を受け取り、値を設定する処理
+	 */
+	public void repeatRows(String sheetName, int st, int en, int count, IntConsumer writer) {
+		if (count <= 0) {
+			return;
+		}
+		Sheet sheet = wb.getSheet(sheetName);
+		int height = en - st;
+
+		// 範囲内の行・セル・スタイルを保持
+		Row[] rows = new Row[height];
+		Cell[][] cells = new Cell[height][];
+		CellStyle[][] cellStyles = new CellStyle[height][];
+		for (int i = 0; i < height; i++) {
+			rows[i] = sheet.getRow(st + i);
+			if (rows[i] == null) {
+				continue;
+			}
+			int lastCellNum = Math.max(rows[i].getLastCellNum(), 0);
+			cells[i] = new Cell[lastCellNum];
+			cellStyles[i] = new CellStyle[lastCellNum];
+			for (int j = 0; j < lastCellNum; j++) {
+				cells[i][j] = rows[i].getCell(j);
+				if (cells[i][j] != null) {
+					cellStyles[i][j] = cells[i][j].getCellStyle();
+				}
+			}
+		}
+		// 範囲内に収まる結合状態を保持
+		List<CellRangeAddress> mergedRegions = new ArrayList<>();
+		for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+			CellRangeAddress cra = sheet.getMergedRegion(i);
+			if (cra.getFirstRow() >= st && cra.getLastRow() < en) {
+				mergedRegions.add(cra);
+			}
+		}
+
+		for (int n = 1; n < count; n++) {
+			int offset = height * n;
+			for (int i = 0; i < height; i++) {
+				if (rows[i] == null) {
+					continue;
+				}
+				Row row = sheet.createRow(st + i + offset);
+				row.setHeight(rows[i].getHeight());
+				for (int j = 0; j < cells[i].length; j++) {
+					if (cells[i][j] != null) {
+						Cell cell = row.createCell(j);
+						cell.setCellStyle(cellStyles[i][j]);
+						copyCellValue(cells[i][j], cell);
+					}
+				}
+			}
+			for (CellRangeAddress cra : mergedRegions) {
+				sheet.addMergedRegion(new CellRangeAddress(cra.getFirstRow() + offset,
+						cra.getLastRow() + offset, cra.getFirstColumn(), cra.getLastColumn()));
+			}
+			writer.accept(n);
+		}
+		// 元の範囲は複製元のため最後に設定する
+		writer.accept(0);
+	}
+
+	/**
+	 * セルの値をコピーする
+	 * 
+	 * @param cell  コピー元のセル
+	 * @param cell2 コピー先のセル
+	 */
+	private static void copyCellValue(Cell cell, Cell cell2) {
+		switch (cell.getCellType()) {
+		case Cell.CELL_TYPE_STRING:
+			cell2.setCellValue(cell.getRichStringCellValue());
+			break;
+		case Cell.CELL_TYPE_NUMERIC:
+			if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
+				cell2.setCellValue(cell.getDateCellValue());
+			} else {
+				cell2.setCellValue(cell.getNumericCellValue());
+			}
+			break;
+		case Cell.CELL_TYPE_FORMULA:
+			cell2.setCellFormula(cell.getCellFormula());
+			break;
+		case Cell.CELL_TYPE_BOOLEAN:
+			cell2.setCellValue(cell.getBooleanCellValue());
+			break;
+		}
+	}
+
 	/**
 	 * Workbookのダウンロードを行う
 	 * 
@@ -338,6 +494,137 @@ public class ExcelUtil {
 		}
 	}
 
+	/**
+	 * Workbookの一括ダウンロードを行う（並列作成・逐次書込）<br>
+	 * 作成処理を共有のスレッドプールで並列に実行し、完了したものから依頼順にZIPファイルへ書き込む。
+	 * 作成中・書込待ちのWorkbook1件につき許可を1つ取得し、ZIPファイルへ書き込んだ時点で返却する。
+	 * 許可を全ての一括ダウンロードで共有するため、メモリ使用量は許可数に比例し、
+	 * Workbook数・同時ダウンロード数には依存しない。
+	 * 
+	 * @param workbookLoaderList Workbook作成処理リスト
+	 * @param executor           作成用のスレッドプール
+	 * @param permits            作成中・書込待ちのWorkbook数の許可
+	 * @param out                出力先（ZIPファイル）
+	 * @throws IOException
+	 */
+	public static void writeBooksInZip(List<Callable<WorkbookDto>> workbookLoaderList,
+			ExecutorService executor, Semaphore permits, OutputStream out) throws IOException {
+		Deque<Future<BookEntry>> inFlight = new ArrayDeque<>();
+		try (ZipOutputStream zos = new ZipOutputStream(out, Charset.forName("MS932"))) {
+			Set<String> wbNameSet = new HashSet<>();
+			Iterator<Callable<WorkbookDto>> loaderIterator = workbookLoaderList.iterator();
+			while (loaderIterator.hasNext() || !inFlight.isEmpty()) {
+				// 書込待ちが無い場合は許可を待ち、有る場合は空いている許可の分だけ作成を依頼する
+				while (loaderIterator.hasNext()
+						&& (inFlight.isEmpty() ? acquire(permits) : permits.tryAcquire())) {
+					Callable<WorkbookDto> loader = loaderIterator.next();
+					try {
+						inFlight.add(executor.submit(() -> toBookEntry(loader.call())));
+					} catch (RuntimeException e) {
+						permits.release();
+						throw e;
+					}
+				}
+				BookEntry bookEntry;
+				try {
+					bookEntry = await(inFlight.peek());
+				} finally {
+					inFlight.poll();
+					permits.release();
+				}
+
+				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
+				int count = 1;
+				String wbName = bookEntry.wbName;
+				while (!wbNameSet.add(wbName)) {
+					wbName = FileUtil.getPrefix(bookEntry.wbName) + "(" + count + ")."
+							+ FileUtil.getSuffix(bookEntry.wbName);
+					count++;
+				}
+				zos.putNextEntry(new ZipEntry(wbName));
+				zos.write(bookEntry.content);
+				zos.closeEntry();
+			}
+		} finally {
+			// 中断した場合は未書込の作成を取り消し、許可を返却する
+			for (Future<BookEntry> future : inFlight) {
+				future.cancel(true);
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * 許可の取得（取得できるまで待つ）
+	 * 
+	 * @param permits
+	 * @return true
+	 * @throws IOException
+	 */
+	private static boolean acquire(Semaphore permits) throws IOException {
+		try {
+			permits.acquire();
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Workbookの書込内容を作成
+	 * 
+	 * @param workbookDto
+	 * @return 書込内容
+	 * @throws IOException
+	 */
+	private static BookEntry toBookEntry(WorkbookDto workbookDto) throws IOException {
+		// Workbookの書込でストリームが閉じられるため、一旦メモリ上へ書き込む
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		workbookDto.getWb().write(baos);
+		return new BookEntry(workbookDto.getWbName(), baos.toByteArray());
+	}
+
+	/**
+	 * 作成処理の完了待ち
+	 * 
+	 * @param future
+	 * @return 書込内容
+	 * @throws IOException
+	 */
+	private static BookEntry await(Future<BookEntry> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * ZIPファイルへの書込内容
+	 */
+	private static final class BookEntry {
+
+		/** ファイル名 */
+		private final String wbName;
+		/** ファイルの内容 */
+		private final byte[] content;
+
+		private BookEntry(String wbName, byte[] content) {
+			this.wbName = wbName;
+			this.content = content;
+		}
+	}
+
 	/**
 	 * シート存在チェック
 	 * 
@@ -0,0 +1,252 @@
+package jp.co.sss.lms.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * 表形式ファイルの逐次読込ユーティリティ<br>
+ * .xlsx（先頭シート）と.csvを1行ずつ読み込み、ワークブック全体をメモリ上に展開しない。
+ * 
+ * @author 東京ITスクール
+ */
+public class SheetStreamReader {
+
+	/**
+	 * 行単位の処理
+	 */
+	public interface RowHandler {
+
+		/**
+		 * 1行分の処理
+		 * 
+		 * @param rowNum 行番号（1始まり）
+		 * @param values 列の値（未入力の列は空文字）
+		 */
+		void row(int rowNum, List<String> values);
+	}
+
+	private SheetStreamReader() {
+	}
+
+	/**
+	 * 対応している拡張子か判定
+	 * 
+	 * @param fileName
+	 * @return .xlsxまたは.csvの場合true
+	 */
+	public static boolean isSupported(String fileName) {
+		return isXlsx(fileName) || isCsv(fileName);
+	}
+
+	/**
+	 * ファイルを1行ずつ読み込む
+	 * 
+	 * @param file       読込ファイル
+	 * @param fileName   元のファイル名（拡張子で形式を判定）
+	 * @param csvCharset CSVの文字コード
+	 * @param handler    行単位の処理
+	 * @throws IOException
+	 */
+	public static void read(File file, String fileName, Charset csvCharset, RowHandler handler)
+			throws IOException {
+		if (isXlsx(fileName)) {
+			readXlsx(file, handler);
+		} else if (isCsv(fileName)) {
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				readCsv(new InputStreamReader(in, csvCharset), handler);
+			}
+		} else {
+			throw new IllegalArgumentException(fileName + " is not supported.");
+		}
+	}
+
+	/**
+	 * .xlsxの先頭シートをSAXで読み込む
+	 * 
+	 * @param file
+	 * @param handler
+	 * @throws IOException
+	 */
+	private static void readXlsx(File file, RowHandler handler) throws IOException {
+		OPCPackage pkg = null;
+		try {
+			pkg = OPCPackage.open(file.getPath(), PackageAccess.READ);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			XSSFReader xssfReader = new XSSFReader(pkg);
+			StylesTable styles = xssfReader.getStylesTable();
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+			if (!sheets.hasNext()) {
+				return;
+			}
+			try (InputStream sheet = sheets.next()) {
+				XMLReader parser = newSheetParser();
+				parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+						new RowCollector(handler), new DataFormatter(), false));
+				parser.parse(new InputSource(sheet));
+			}
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		} finally {
+			if (pkg != null) {
+				// 読込専用のため変更を保存せずに閉じる
+				pkg.revert();
+			}
+		}
+	}
+
+	/**
+	 * シートのXMLパーサーを作成<br>
+	 * アップロードされたファイルを読み込むため、DTD・外部エンティティを無効にする（XXE対策）。
+	 * 
+	 * @return XMLパーサー
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 */
+	static XMLReader newSheetParser() throws ParserConfigurationException, SAXException {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+		factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+		factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		factory.setXIncludeAware(false);
+		return factory.newSAXParser().getXMLReader();
+	}
+
+	/**
+	 * CSVを読み込む（ダブルクォートによる囲み・エスケープに対応）
+	 * 
+	 * @param reader
+	 * @param handler
+	 * @throws IOException
+	 */
+	static void readCsv(Reader reader, RowHandler handler) throws IOException {
+		BufferedReader in = new BufferedReader(reader);
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		boolean rowStarted = false;
+		int rowNum = 1;
+		int c = in.read();
+		// BOMを読み飛ばす
+		if (c == '\uFEFF') {
+			c = in.read();
+		}
+		for (; c != -1; c = in.read()) {
+			rowStarted = true;
+			if (quoted) {
+				if (c == '"') {
+					in.mark(1);
+					int next = in.read();
+					if (next == '"') {
+						value.append('"');
+					} else {
+						quoted = false;
+						in.reset();
+					}
+				} else {
+					value.append((char) c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else if (c == '\r' || c == '\n') {
+				if (c == '\r') {
+					in.mark(1);
+					if (in.read() != '\n') {
+						in.reset();
+					}
+				}
+				values.add(value.toString());
+				value.setLength(0);
+				handler.row(rowNum++, values);
+				values = new ArrayList<>();
+				rowStarted = false;
+			} else {
+				value.append((char) c);
+			}
+		}
+		if (rowStarted) {
+			values.add(value.toString());
+			handler.row(rowNum, values);
+		}
+	}
+
+	private static boolean isXlsx(String fileName) {
+		return fileName != null && fileName.toLowerCase().endsWith(".xlsx");
+	}
+
+	private static boolean isCsv(String fileName) {
+		return fileName != null && fileName.toLowerCase().endsWith(".csv");
+	}
+
+	/**
+	 * SAXのセル通知を行単位にまとめる
+	 */
+	private static final class RowCollector implements SheetContentsHandler {
+
+		private final RowHandler handler;
+		private final List<String> values = new ArrayList<>();
+		private int rowNum;
+
+		private RowCollector(RowHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			this.rowNum = rowNum + 1;
+			values.clear();
+		}
+
+		@Override
+		public void endRow() {
+			handler.row(rowNum, new ArrayList<>(values));
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue) {
+			// 未入力セルは通知されないため、列位置まで空文字で埋める
+			int col = (cellReference == null) ? values.size()
+					: new CellReference(cellReference).getCol();
+			while (values.size() < col) {
+				values.add("");
+			}
+			values.add(formattedValue == null ? "" : formattedValue);
+		}
+
+		@Override
+		public void headerFooter(String text, boolean isHeader, String tagName) {
+		}
+	}
+
+}
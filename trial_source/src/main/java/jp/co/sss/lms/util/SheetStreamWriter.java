@@ -0,0 +1,484 @@
+package jp.co.sss.lms.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * テンプレートへの逐次書込ユーティリティ<br>
+ * .xlsx/.xlsmテンプレートの対象シートを1行ずつ読み替えて出力し、ワークブック全体をメモリ上に展開しない。
+ * 書式・数式・マクロはテンプレートのまま残し、数式はファイルを開いた時に再計算させる。
+ *
+ * @author 東京ITスクール
+ */
+public class SheetStreamWriter {
+
+	/** SpreadsheetMLの名前空間 */
+	private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	/** リレーションシップの名前空間 */
+	private static final String NS_RELATIONSHIP = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	/** ワークブックのパス */
+	private static final String WORKBOOK_PART = "xl/workbook.xml";
+	/** ワークブックのリレーションシップのパス */
+	private static final String WORKBOOK_RELS_PART = "xl/_rels/workbook.xml.rels";
+
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+	private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+	static {
+		INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	/**
+	 * 書込値<br>
+	 * 行・列は{@link ExcelUtil#setVal(String, int, int, String)}と同じく0始まり。
+	 * 値はString、Number、Dateのいずれか（nullの場合は書き込まない）。
+	 */
+	public static class SheetValues {
+
+		/** 行番号をキーとした列番号毎の値 */
+		private final NavigableMap<Integer, NavigableMap<Integer, Object>> rows = new TreeMap<>();
+
+		/**
+		 * 値の設定
+		 *
+		 * @param rowNum
+		 * @param clmNum
+		 * @param value
+		 */
+		public void setVal(int rowNum, int clmNum, Object value) {
+			if (value == null) {
+				return;
+			}
+			rows.computeIfAbsent(rowNum, key -> new TreeMap<>()).put(clmNum, value);
+		}
+
+		/**
+		 * 時間を時・分の2列に設定
+		 *
+		 * @param rowNum
+		 * @param clmNum  時を設定する列（分は次の列）
+		 * @param minutes 経過分数（{@link TrainingTime#BLANK}の場合は設定しない）
+		 */
+		public void setHourMinute(int rowNum, int clmNum, int minutes) {
+			if (minutes == TrainingTime.BLANK) {
+				return;
+			}
+			setVal(rowNum, clmNum, Math.floorDiv(minutes, 60));
+			setVal(rowNum, clmNum + 1, Math.floorMod(minutes, 60));
+		}
+	}
+
+	private SheetStreamWriter() {
+	}
+
+	/**
+	 * テンプレートの指定シートに値を書き込んで出力する<br>
+	 * 出力ストリームは閉じない（ZIPエントリへの書込を想定）。
+	 *
+	 * @param template  テンプレートファイルの内容
+	 * @param sheetName 書込対象のシート名
+	 * @param values    書込値
+	 * @param out       出力先
+	 * @throws IOException
+	 */
+	public static void write(byte[] template, String sheetName, SheetValues values,
+			OutputStream out) throws IOException {
+		String sheetPart = getSheetPart(template, sheetName);
+		try (ZipOutputStream zos = new ZipOutputStream(new NonClosingOutputStream(out));
+				ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(template))) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null) {
+				zos.putNextEntry(new ZipEntry(entry.getName()));
+				if (entry.getName().equals(sheetPart)) {
+					writeSheet(zis, zos, values);
+				} else if (entry.getName().equals(WORKBOOK_PART)) {
+					writeWorkbook(zis, zos);
+				} else {
+					zis.transferTo(zos);
+				}
+				zos.closeEntry();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * シート名からシートのパスを取得
+	 *
+	 * @param template
+	 * @param sheetName
+	 * @return シートのパス（例：xl/worksheets/sheet1.xml）
+	 * @throws IOException
+	 */
+	private static String getSheetPart(byte[] template, String sheetName) throws IOException {
+		String relationshipId = null;
+		Map<String, String> targetMap = new HashMap<>();
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(template))) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null) {
+				if (entry.getName().equals(WORKBOOK_PART)) {
+					XMLEventReader reader = createReader(zis);
+					while (reader.hasNext()) {
+						XMLEvent event = reader.nextEvent();
+						if (isStartElement(event, "sheet") && sheetName.equals(
+								getAttribute(event.asStartElement(), new QName("name")))) {
+							relationshipId = getAttribute(event.asStartElement(),
+									new QName(NS_RELATIONSHIP, "id"));
+						}
+					}
+				} else if (entry.getName().equals(WORKBOOK_RELS_PART)) {
+					XMLEventReader reader = createReader(zis);
+					while (reader.hasNext()) {
+						XMLEvent event = reader.nextEvent();
+						if (isStartElement(event, "Relationship")) {
+							StartElement element = event.asStartElement();
+							targetMap.put(getAttribute(element, new QName("Id")),
+									getAttribute(element, new QName("Target")));
+						}
+					}
+				}
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+		String target = targetMap.get(relationshipId);
+		if (target == null) {
+			throw new IOException(sheetName + " is not found.");
+		}
+		// 絶対パスの場合はパッケージのルートから、相対パスの場合はxl/から
+		return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+	}
+
+	/**
+	 * ワークブックの出力<br>
+	 * テンプレートの数式の計算結果が古いままのため、開いた時に再計算させる。
+	 *
+	 * @param in
+	 * @param out
+	 * @throws XMLStreamException
+	 */
+	private static void writeWorkbook(InputStream in, OutputStream out) throws XMLStreamException {
+		XMLEventReader reader = createReader(in);
+		XMLEventWriter writer = OUTPUT_FACTORY.createXMLEventWriter(out, "UTF-8");
+		while (reader.hasNext()) {
+			XMLEvent event = reader.nextEvent();
+			if (isStartElement(event, "calcPr")) {
+				StartElement element = event.asStartElement();
+				List<Attribute> attributes = new ArrayList<>();
+				for (Iterator<Attribute> it = element.getAttributes(); it.hasNext();) {
+					Attribute attribute = it.next();
+					if (!"fullCalcOnLoad".equals(attribute.getName().getLocalPart())) {
+						attributes.add(attribute);
+					}
+				}
+				attributes.add(EVENT_FACTORY.createAttribute("fullCalcOnLoad", "1"));
+				event = EVENT_FACTORY.createStartElement(element.getName(), attributes.iterator(),
+						element.getNamespaces());
+			}
+			writer.add(event);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * シートの出力<br>
+	 * 行を1行ずつ読み替え、書込値のある行のみセルを差し替える。テンプレートに無い行・セルは追加する。
+	 *
+	 * @param in
+	 * @param out
+	 * @param values
+	 * @throws XMLStreamException
+	 */
+	private static void writeSheet(InputStream in, OutputStream out, SheetValues values)
+			throws XMLStreamException {
+		XMLEventReader reader = createReader(in);
+		XMLEventWriter writer = OUTPUT_FACTORY.createXMLEventWriter(out, "UTF-8");
+		Iterator<Map.Entry<Integer, NavigableMap<Integer, Object>>> rowIterator = values.rows
+				.entrySet().iterator();
+		Map.Entry<Integer, NavigableMap<Integer, Object>> pendingRow = next(rowIterator);
+		boolean inSheetData = false;
+		int lastRowNum = 0;
+		while (reader.hasNext()) {
+			XMLEvent event = reader.nextEvent();
+			if (isStartElement(event, "sheetData")) {
+				inSheetData = true;
+			} else if (inSheetData && isStartElement(event, "row")) {
+				StartElement element = event.asStartElement();
+				String r = getAttribute(element, new QName("r"));
+				int rowNum = (r == null) ? lastRowNum + 1 : Integer.parseInt(r);
+				lastRowNum = rowNum;
+				// テンプレートに無い行を先に追加する
+				while (pendingRow != null && pendingRow.getKey() + 1 < rowNum) {
+					writeRow(writer, pendingRow.getKey() + 1, pendingRow.getValue());
+					pendingRow = next(rowIterator);
+				}
+				if (pendingRow != null && pendingRow.getKey() + 1 == rowNum) {
+					writer.add(removeAttribute(element, "spans"));
+					mergeRow(reader, writer, rowNum, pendingRow.getValue());
+					pendingRow = next(rowIterator);
+					continue;
+				}
+			} else if (inSheetData && isEndElement(event, "sheetData")) {
+				while (pendingRow != null) {
+					writeRow(writer, pendingRow.getKey() + 1, pendingRow.getValue());
+					pendingRow = next(rowIterator);
+				}
+				inSheetData = false;
+			}
+			writer.add(event);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * テンプレートの行に書込値をマージして出力（行の終了タグまで）
+	 *
+	 * @param reader
+	 * @param writer
+	 * @param rowNum 行番号（1始まり）
+	 * @param cells  列番号毎の書込値
+	 * @throws XMLStreamException
+	 */
+	private static void mergeRow(XMLEventReader reader, XMLEventWriter writer, int rowNum,
+			NavigableMap<Integer, Object> cells) throws XMLStreamException {
+		Iterator<Map.Entry<Integer, Object>> cellIterator = cells.entrySet().iterator();
+		Map.Entry<Integer, Object> pendingCell = next(cellIterator);
+		int lastClmNum = -1;
+		while (reader.hasNext()) {
+			XMLEvent event = reader.nextEvent();
+			if (isEndElement(event, "row")) {
+				while (pendingCell != null) {
+					writeCell(writer, rowNum, pendingCell.getKey(), null, pendingCell.getValue());
+					pendingCell = next(cellIterator);
+				}
+				writer.add(event);
+				return;
+			}
+			if (!isStartElement(event, "c")) {
+				writer.add(event);
+				continue;
+			}
+			StartElement element = event.asStartElement();
+			String r = getAttribute(element, new QName("r"));
+			int clmNum = (r == null) ? lastClmNum + 1 : new CellReference(r).getCol();
+			lastClmNum = clmNum;
+			// テンプレートに無いセルを先に追加する
+			while (pendingCell != null && pendingCell.getKey() < clmNum) {
+				writeCell(writer, rowNum, pendingCell.getKey(), null, pendingCell.getValue());
+				pendingCell = next(cellIterator);
+			}
+			// セルの終了タグまで読み込む（セルは入れ子にならないため数件のイベントのみ）
+			List<XMLEvent> cellEvents = new ArrayList<>();
+			cellEvents.add(event);
+			boolean hasFormula = false;
+			while (reader.hasNext()) {
+				XMLEvent cellEvent = reader.nextEvent();
+				cellEvents.add(cellEvent);
+				hasFormula |= isStartElement(cellEvent, "f");
+				if (isEndElement(cellEvent, "c")) {
+					break;
+				}
+			}
+			// 数式のセルはテンプレートを優先する
+			if (pendingCell != null && pendingCell.getKey() == clmNum && !hasFormula) {
+				writeCell(writer, rowNum, clmNum, getAttribute(element, new QName("s")),
+						pendingCell.getValue());
+			} else {
+				for (XMLEvent cellEvent : cellEvents) {
+					writer.add(cellEvent);
+				}
+			}
+			if (pendingCell != null && pendingCell.getKey() == clmNum) {
+				pendingCell = next(cellIterator);
+			}
+		}
+	}
+
+	/**
+	 * テンプレートに無い行を出力
+	 *
+	 * @param writer
+	 * @param rowNum 行番号（1始まり）
+	 * @param cells  列番号毎の書込値
+	 * @throws XMLStreamException
+	 */
+	private static void writeRow(XMLEventWriter writer, int rowNum,
+			NavigableMap<Integer, Object> cells) throws XMLStreamException {
+		List<Attribute> attributes = new ArrayList<>();
+		attributes.add(EVENT_FACTORY.createAttribute("r", String.valueOf(rowNum)));
+		writer.add(EVENT_FACTORY.createStartElement("", NS_MAIN, "row", attributes.iterator(), null));
+		for (Map.Entry<Integer, Object> cell : cells.entrySet()) {
+			writeCell(writer, rowNum, cell.getKey(), null, cell.getValue());
+		}
+		writer.add(EVENT_FACTORY.createEndElement("", NS_MAIN, "row"));
+	}
+
+	/**
+	 * セルを出力<br>
+	 * 文字列は共有文字列を使用せずインライン文字列で出力する。
+	 *
+	 * @param writer
+	 * @param rowNum 行番号（1始まり）
+	 * @param clmNum 列番号（0始まり）
+	 * @param style  テンプレートのスタイル番号
+	 * @param value
+	 * @throws XMLStreamException
+	 */
+	private static void writeCell(XMLEventWriter writer, int rowNum, int clmNum, String style,
+			Object value) throws XMLStreamException {
+		List<Attribute> attributes = new ArrayList<>();
+		attributes.add(EVENT_FACTORY.createAttribute("r",
+				CellReference.convertNumToColString(clmNum) + rowNum));
+		if (style != null) {
+			attributes.add(EVENT_FACTORY.createAttribute("s", style));
+		}
+		if (value instanceof Number || value instanceof Date) {
+			double number = (value instanceof Date) ? DateUtil.getExcelDate((Date) value)
+					: ((Number) value).doubleValue();
+			writer.add(EVENT_FACTORY.createStartElement("", NS_MAIN, "c", attributes.iterator(),
+					null));
+			writer.add(EVENT_FACTORY.createStartElement("", NS_MAIN, "v", null, null));
+			writer.add(EVENT_FACTORY.createCharacters(formatNumber(number)));
+			writer.add(EVENT_FACTORY.createEndElement("", NS_MAIN, "v"));
+		} else {
+			String text = value.toString();
+			attributes.add(EVENT_FACTORY.createAttribute("t", "inlineStr"));
+			writer.add(EVENT_FACTORY.createStartElement("", NS_MAIN, "c", attributes.iterator(),
+					null));
+			writer.add(EVENT_FACTORY.createStartElement("", NS_MAIN, "is", null, null));
+			List<Attribute> textAttributes = new ArrayList<>();
+			if (!text.equals(text.trim())) {
+				textAttributes.add(EVENT_FACTORY.createAttribute(
+						new QName(XMLConstants.XML_NS_URI, "space", XMLConstants.XML_NS_PREFIX),
+						"preserve"));
+			}
+			writer.add(EVENT_FACTORY.createStartElement("", NS_MAIN, "t", textAttributes.iterator(),
+					null));
+			writer.add(EVENT_FACTORY.createCharacters(text));
+			writer.add(EVENT_FACTORY.createEndElement("", NS_MAIN, "t"));
+			writer.add(EVENT_FACTORY.createEndElement("", NS_MAIN, "is"));
+		}
+		writer.add(EVENT_FACTORY.createEndElement("", NS_MAIN, "c"));
+	}
+
+	/**
+	 * 数値の文字列表現（整数の場合は小数点以下を出力しない）
+	 *
+	 * @param number
+	 * @return 数値の文字列
+	 */
+	private static String formatNumber(double number) {
+		if (number == Math.rint(number) && Math.abs(number) < Long.MAX_VALUE) {
+			return String.valueOf((long) number);
+		}
+		return String.valueOf(number);
+	}
+
+	/**
+	 * 属性を除いた開始タグを作成
+	 *
+	 * @param element
+	 * @param localName
+	 * @return 開始タグ
+	 */
+	private static StartElement removeAttribute(StartElement element, String localName) {
+		List<Attribute> attributes = new ArrayList<>();
+		for (Iterator<Attribute> it = element.getAttributes(); it.hasNext();) {
+			Attribute attribute = it.next();
+			if (!localName.equals(attribute.getName().getLocalPart())) {
+				attributes.add(attribute);
+			}
+		}
+		return EVENT_FACTORY.createStartElement(element.getName(), attributes.iterator(),
+				element.getNamespaces());
+	}
+
+	/**
+	 * ZIPエントリの読込<br>
+	 * 読込終了時にZIPの入力ストリームが閉じられないようにする。
+	 *
+	 * @param in
+	 * @return XMLイベントリーダー
+	 * @throws XMLStreamException
+	 */
+	private static XMLEventReader createReader(InputStream in) throws XMLStreamException {
+		return INPUT_FACTORY.createXMLEventReader(new FilterInputStream(in) {
+			@Override
+			public void close() {
+			}
+		});
+	}
+
+	/**
+	 * 閉じない出力ストリーム<br>
+	 * ZIPの終端を書き込んだ後も呼び出し元のストリームへ書き込めるようにする。
+	 */
+	private static class NonClosingOutputStream extends FilterOutputStream {
+
+		private NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+
+	private static String getAttribute(StartElement element, QName name) {
+		Attribute attribute = element.getAttributeByName(name);
+		return (attribute == null) ? null : attribute.getValue();
+	}
+
+	private static boolean isStartElement(XMLEvent event, String localName) {
+		return event.isStartElement()
+				&& localName.equals(event.asStartElement().getName().getLocalPart());
+	}
+
+	private static boolean isEndElement(XMLEvent event, String localName) {
+		return event.isEndElement()
+				&& localName.equals(event.asEndElement().getName().getLocalPart());
+	}
+
+	private static <T> T next(Iterator<T> iterator) {
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+}
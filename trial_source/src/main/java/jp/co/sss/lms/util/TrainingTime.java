@@ -1,40 +1,34 @@
 package jp.co.sss.lms.util;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalTime;
 
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-
-import lombok.Getter;
-import lombok.Setter;
 
 /**
- * 研修時刻ユーティリティ
+ * 研修時刻ユーティリティ<br>
+ * 時刻は0時からの経過分数（int）で保持する。未設定の場合は{@link #BLANK}。
  * 
  * @author 東京ITスクール
  */
 @Component
-@Getter
-@Setter
 public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/** シリアルバージョンUID */
 	private static final long serialVersionUID = 1L;
 
-	/** 時間 */
-	private Integer hour;
-	/** 分 */
-	private Integer minute;
+	/** 未設定を表す経過分数 */
+	public static final int BLANK = Integer.MIN_VALUE;
+
+	/** 0時からの経過分数 */
+	private int minutes = BLANK;
 
 	/**
 	 * 現在時刻でインスタンスを作成する
 	 */
 	public TrainingTime() {
-		SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
-		String timeStr = sdf.format(new Date());
-		setTimeStr(timeStr);
+		LocalTime now = LocalTime.now();
+		this.minutes = now.getHour() * 60 + now.getMinute();
 	}
 
 	/**
@@ -47,8 +41,122 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 		if (!isValidTrainingTime(hour, minute)) {
 			throw new IllegalArgumentException();
 		}
-		this.hour = hour;
-		this.minute = minute;
+		this.minutes = hour * 60 + minute;
+	}
+
+	/**
+	 * 経過分数からインスタンスを作成
+	 * 
+	 * @param minutes 0時からの経過分数（{@link #BLANK}の場合は未設定）
+	 * @return 研修時刻
+	 */
+	public static TrainingTime ofMinutes(int minutes) {
+		return new TrainingTime(minutes);
+	}
+
+	/**
+	 * 経過分数でインスタンスを作成
+	 * 
+	 * @param minutes
+	 */
+	private TrainingTime(int minutes) {
+		this.minutes = minutes;
+	}
+
+	/**
+	 * 文字列を経過分数に変換する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 * 
+	 * @param timeStr
+	 * @return 0時からの経過分数（空の場合は{@link #BLANK}）
+	 * @throws IllegalArgumentException 有効フォーマットでない場合
+	 */
+	public static int parseMinutes(CharSequence timeStr) {
+		if (timeStr == null || timeStr.length() == 0) {
+			return BLANK;
+		}
+		int minutes = parseOrInvalid(timeStr);
+		if (minutes < 0) {
+			throw new IllegalArgumentException(timeStr + " is Illegal.");
+		}
+		return minutes;
+	}
+
+	/**
+	 * 経過分数をzero paddingしたHH:mm形式に変換する
+	 * 
+	 * @param minutes 0時からの経過分数
+	 * @return HH:mm（{@link #BLANK}の場合は空文字）
+	 */
+	public static String formatMinutes(int minutes) {
+		if (minutes == BLANK) {
+			return "";
+		}
+		int hour = Math.floorDiv(minutes, 60);
+		int minute = Math.floorMod(minutes, 60);
+		if (hour >= 0 && hour < 100) {
+			char[] chars = { (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+					(char) ('0' + minute / 10), (char) ('0' + minute % 10) };
+			return new String(chars);
+		}
+		return String.format("%1$02d:%2$02d", hour, minute);
+	}
+
+	/**
+	 * 文字列を経過分数に変換する（数字とコロンを1文字ずつ読み取る）
+	 * 
+	 * @param timeStr
+	 * @return 0時からの経過分数（有効フォーマットでない場合は-1）
+	 */
+	private static int parseOrInvalid(CharSequence timeStr) {
+		int length = timeStr.length();
+		int colon = -1;
+		for (int i = 0; i < length; i++) {
+			if (timeStr.charAt(i) == ':') {
+				if (colon >= 0) {
+					return -1;
+				}
+				colon = i;
+			}
+		}
+		if (colon < 0) {
+			// 数値4桁の場合
+			if (length != 4) {
+				return -1;
+			}
+			int hour = parseDigits(timeStr, 0, 2);
+			int minute = parseDigits(timeStr, 2, 4);
+			return (hour < 0 || minute < 0 || minute > 59) ? -1 : hour * 60 + minute;
+		}
+		int hour = parseDigits(timeStr, 0, colon);
+		int minute = parseDigits(timeStr, colon + 1, length);
+		return (hour < 0 || minute < 0 || minute > 59) ? -1 : hour * 60 + minute;
+	}
+
+	/**
+	 * 数字のみで構成された範囲を数値に変換する
+	 * 
+	 * @param timeStr
+	 * @param from
+	 * @param to
+	 * @return 数値（空・数字以外を含む・桁あふれの場合は-1）
+	 */
+	private static int parseDigits(CharSequence timeStr, int from, int to) {
+		if (from >= to) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			char c = timeStr.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+			// 分換算で桁あふれしない範囲に制限する
+			if (value > Integer.MAX_VALUE / 60 - 60) {
+				return -1;
+			}
+		}
+		return value;
 	}
 
 	/**
@@ -58,30 +166,10 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isValidTrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
+		if (timeStr == null || timeStr.isEmpty()) {
 			return true;
 		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			final String numRegex = "[0-9]+";
-			if (times.length == 2 && times[0].matches(numRegex) && times[1].matches(numRegex)) {
-				hour = Integer.parseInt(times[0]);
-				minute = Integer.parseInt(times[1]);
-				return isValidTrainingTime(hour, minute);
-			} else {
-				return false;
-			}
-		} else if (timeStr.matches("[0-9]{4}")) {
-			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
-			return isValidTrainingTime(hour, minute);
-		} else {
-			return false;
-		}
+		return parseOrInvalid(timeStr) >= 0;
 	}
 
 	/**
@@ -107,43 +195,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @param timeStr
 	 */
 	public TrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
-			return;
-		}
-		setTimeStr(timeStr);
-	}
-
-	/**
-	 * 時刻を設定
-	 *
-	 * @param timeStr
-	 */
-	private void setTimeStr(String timeStr) {
-		// 有効フォーマットかどうかチェックを行う
-		if (!isValidTrainingTime(timeStr)) {
-			throw new IllegalArgumentException(timeStr + " is Illegal.");
-		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			// isValidTrainingTimeでチェック済のためそのまま変換する
-			hour = Integer.parseInt(times[0]);
-			minute = Integer.parseInt(times[1]);
-		} else if (timeStr.matches("[0-9]{4}")) {
-			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
-		} else {
-			throw new IllegalArgumentException();
-		}
-		// 数値的なチェックを行う
-		if (!isValidTrainingTime(hour, minute)) {
-			throw new IllegalArgumentException();
-		}
-		this.hour = hour;
-		this.minute = minute;
+		this.minutes = parseMinutes(timeStr);
 	}
 
 	/**
@@ -153,15 +205,10 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return this + augend
 	 */
 	public TrainingTime add(TrainingTime augend) {
-		Integer retHour = this.hour;
-		Integer retMinute = this.minute;
-		retHour += augend.hour;
-		retMinute += augend.minute;
-		while (retMinute >= 60) {
-			retHour += 1;
-			retMinute -= 60;
+		if (this.isBlank() || augend.isBlank()) {
+			throw new IllegalArgumentException();
 		}
-		return new TrainingTime(retHour, retMinute);
+		return ofMinutes(this.minutes + augend.minutes);
 	}
 
 	/**
@@ -171,18 +218,12 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return this - augend
 	 */
 	public TrainingTime subtract(TrainingTime subtrahend) {
-		if (this.compareTo(subtrahend) > 0) {
-			Integer retHour = this.hour;
-			Integer retMinute = this.minute;
-			retHour -= subtrahend.hour;
-			retMinute -= subtrahend.minute;
-			while (retHour > 0 && retMinute < 0) {
-				retHour -= 1;
-				retMinute += 60;
-			}
-			return new TrainingTime(retHour, retMinute);
-		} else if (this.equals(subtrahend)) {
-			return new TrainingTime(0, 0);
+		if (this.isBlank() && subtrahend.isBlank()) {
+			return ofMinutes(0);
+		} else if (this.isBlank() || subtrahend.isBlank()) {
+			throw new IllegalArgumentException();
+		} else if (this.minutes >= subtrahend.minutes) {
+			return ofMinutes(this.minutes - subtrahend.minutes);
 		} else {
 			throw new UnsupportedOperationException("未実装");
 		}
@@ -245,17 +286,22 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	@Override
 	public boolean equals(Object anObject) {
 		if (anObject instanceof TrainingTime) {
-			TrainingTime target = (TrainingTime) anObject;
-			if (target.hour == this.hour && target.minute == this.minute) {
-				return true;
-			} else {
-				return false;
-			}
+			return ((TrainingTime) anObject).minutes == this.minutes;
 		} else {
 			return false;
 		}
 	}
 
+	/**
+	 * ハッシュコード
+	 * 
+	 * @return ハッシュコード
+	 */
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(minutes);
+	}
+
 	/**
 	 * 指定した研修時間インスタンスの比較
 	 * 
@@ -264,22 +310,9 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 */
 	@Override
 	public int compareTo(TrainingTime anotherTrainingTime) {
-		if (this.isBlank() && anotherTrainingTime != null && !anotherTrainingTime.isBlank()) {
-			return -1;
-		}
-		if (!this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 1;
-		}
-		if (this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 0;
-		}
-		if (this.equals(anotherTrainingTime)) {
-			return 0;
-		}
-		if (this.hour != anotherTrainingTime.hour) {
-			return this.hour.compareTo(anotherTrainingTime.hour);
-		}
-		return this.minute.compareTo(anotherTrainingTime.minute);
+		// 未設定（BLANK）は最小値のため、経過分数の比較で未設定が先になる
+		int another = (anotherTrainingTime == null) ? BLANK : anotherTrainingTime.minutes;
+		return Integer.compare(this.minutes, another);
 	}
 
 	/**
@@ -288,7 +321,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isBlank() {
-		return (this.hour == null || this.minute == null);
+		return this.minutes == BLANK;
 	}
 
 	/**
@@ -300,17 +333,40 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 		return !isBlank();
 	}
 
+	/**
+	 * 0時からの経過分数を返却
+	 * 
+	 * @return 経過分数（未設定の場合は{@link #BLANK}）
+	 */
+	public int toMinutes() {
+		return minutes;
+	}
+
+	/**
+	 * 時間を返却
+	 * 
+	 * @return 時間（未設定の場合はnull）
+	 */
+	public Integer getHour() {
+		return isBlank() ? null : Math.floorDiv(minutes, 60);
+	}
+
+	/**
+	 * 分を返却
+	 * 
+	 * @return 分（未設定の場合はnull）
+	 */
+	public Integer getMinute() {
+		return isBlank() ? null : Math.floorMod(minutes, 60);
+	}
+
 	/**
 	 * 時刻をHH:mm形式で返却
 	 * 
 	 * @return HH:mm
 	 */
 	public String getFormattedString() {
-		if (hour == null || minute == null) {
-			return "";
-		} else {
-			return String.format("%1$02d:%2$02d", hour, minute);
-		}
+		return formatMinutes(minutes);
 	}
 
 	/**
@@ -319,15 +375,8 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return
 	 */
 	public TrainingTime roundUp() {
-		if (between(this.minute, 46, 59)) {
-			this.hour++;
-			this.minute = 0;
-		} else if (between(this.minute, 1, 15)) {
-			this.minute = 15;
-		} else if (between(this.minute, 16, 30)) {
-			this.minute = 30;
-		} else if (between(this.minute, 31, 45)) {
-			this.minute = 45;
+		if (isNotBlank()) {
+			this.minutes = Math.floorDiv(this.minutes + 14, 15) * 15;
 		}
 		return this;
 	}
@@ -338,79 +387,38 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return
 	 */
 	public TrainingTime roundDown() {
-		if (between(this.minute, 45, 59)) {
-			this.minute = 45;
-		} else if (between(this.minute, 0, 14)) {
-			this.minute = 0;
-		} else if (between(this.minute, 15, 29)) {
-			this.minute = 15;
-		} else if (between(this.minute, 30, 44)) {
-			this.minute = 30;
+		if (isNotBlank()) {
+			this.minutes = Math.floorDiv(this.minutes, 15) * 15;
 		}
 		return this;
 	}
 
-	/**
-	 * 指定された数値間か判定
-	 * 
-	 * @param minute
-	 * @param a
-	 * @param b
-	 * 
-	 * @return boolean
-	 */
-	private boolean between(int minute, int a, int b) {
-		if (a > b) {
-			int tmp = b;
-			b = a;
-			a = tmp;
-		}
-		return (minute >= a && minute <= b);
-	}
-
 	/**
 	 * 空か判定
 	 * 
 	 * @return boolean
 	 */
 	public boolean isEmpty() {
-		return hour == null || minute == null;
+		return isBlank();
 	}
 
 	/**
-	 * 企業の休憩取得時間を考慮
+	 * 企業の休憩取得時間を考慮した時間を算出する<br>
+	 * 企業規定の休憩時間が1時間を超える場合、超過分を差し引く（超過分の方が大きい場合は0）。
 	 * 
-	 * @return
+	 * @param totalMinutes            時間（分）
+	 * @param companyRestStartMinutes 企業の休憩開始時刻（0時からの経過分数）
+	 * @param companyRestEndMinutes   企業の休憩終了時刻（0時からの経過分数）
+	 * @return 差し引いた時間（分）（休憩時刻が{@link #BLANK}の場合は差し引かない）
 	 */
-	public String restTimeZone(TrainingTime total, TrainingTime companyRestStartTime,
-			TrainingTime companyRestEndTime) {
-		int startTime = Integer.parseInt(companyRestStartTime.toString().replace(":", ""));
-		int endTime = Integer.parseInt(companyRestEndTime.toString().replace(":", ""));
-
-		int startTimeMin = startTime / 100 * 60 + startTime % 100;
-		int endTimeMin = endTime / 100 * 60 + endTime % 100;
-		int diffMin = endTimeMin - startTimeMin;
-		String chinginTime = total.toString();
-
-		// 企業規定の休憩取得時間が1時間を超える場合、totalから超過分を差し引く
-		if (diffMin > 60) {
-			int totalMin = Integer.parseInt(total.toString().replace(":", ""));
-			;
-			totalMin = totalMin / 100 * 60 + totalMin % 100;
-			diffMin -= 60;
-			totalMin -= diffMin;
-			totalMin = totalMin / 60 * 100 + totalMin % 60;
-
-			// 元のフォーマットに戻す
-			String strTotalMin = String.valueOf(totalMin);
-			if (strTotalMin.length() < 4) {
-				StringBuffer sb = new StringBuffer();
-				sb.append("0");
-				sb.append(strTotalMin);
-				chinginTime = sb.toString();
-			}
+	public static int restTimeZone(int totalMinutes, int companyRestStartMinutes,
+			int companyRestEndMinutes) {
+		if (totalMinutes <= 0 || companyRestStartMinutes == BLANK
+				|| companyRestEndMinutes == BLANK) {
+			return Math.max(totalMinutes, 0);
 		}
-		return chinginTime;
+		int overRestMinutes = Math.max(0, companyRestEndMinutes - companyRestStartMinutes - 60);
+		return Math.max(totalMinutes - overRestMinutes, 0);
 	}
 
 }
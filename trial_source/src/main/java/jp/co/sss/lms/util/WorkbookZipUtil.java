@@ -0,0 +1,59 @@
+package jp.co.sss.lms.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.WorkbookDto;
+
+/**
+ * ワークブックZIP作成ユーティリティ<br>
+ * 一括ダウンロードのワークブック作成に使用するスレッドプール（WebConfigで定義）と、作成中・書込待ちのワークブック数の許可を
+ * 全ての一括ダウンロードで共有する。同時にダウンロードされた場合もスレッド数・メモリ使用量は作成スレッド数で頭打ちとなる。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class WorkbookZipUtil {
+
+	/** ワークブック作成スレッド数（作成中・書込待ちのワークブック数の上限を兼ねる） */
+	@Value("${setting.report.downloadList.workerCount}")
+	private int workerCount;
+
+	/** ワークブック作成用のスレッドプール */
+	@Autowired
+	@Qualifier("workbookZipExecutor")
+	private ExecutorService executor;
+	/** 作成中・書込待ちのワークブック数の許可 */
+	private Semaphore permits;
+
+	/**
+	 * 作成中・書込待ちのワークブック数の許可の作成
+	 */
+	@PostConstruct
+	public void init() {
+		permits = new Semaphore(Math.max(1, workerCount), true);
+	}
+
+	/**
+	 * ワークブックを並列に作成し、ZIPファイルへ書き込む
+	 *
+	 * @param workbookLoaderList ワークブック作成処理リスト
+	 * @param out                出力先（ZIPファイル）
+	 * @throws IOException
+	 */
+	public void writeBooksInZip(List<Callable<WorkbookDto>> workbookLoaderList, OutputStream out)
+			throws IOException {
+		ExcelUtil.writeBooksInZip(workbookLoaderList, executor, permits, out);
+	}
+
+}
@@ -0,0 +1,40 @@
+-- ============================================================
+-- 試験問題分析（試験セクション・問題別）テーブル
+-- ============================================================
+
+-- 試験セクション・問題ごとに、採点対象（mark_flg = 1）の試験結果詳細の集計値を保持する。
+-- 正答率、選択肢別の回答割合、点双列相関（識別力）はこの集計値から算出する。
+-- ExamItemAnalysisService の定期処理で、処理済みの試験結果IDより後の試験結果を加算する。
+CREATE TABLE IF NOT EXISTS t_exam_item_stats (
+	exam_section_id     INTEGER    NOT NULL,
+	question_id         INTEGER    NOT NULL,
+	result_count        INTEGER    NOT NULL DEFAULT 0,
+	correct_count       INTEGER    NOT NULL DEFAULT 0,
+	choice_1_count      INTEGER    NOT NULL DEFAULT 0,
+	choice_2_count      INTEGER    NOT NULL DEFAULT 0,
+	choice_3_count      INTEGER    NOT NULL DEFAULT 0,
+	choice_4_count      INTEGER    NOT NULL DEFAULT 0,
+	no_reply_count      INTEGER    NOT NULL DEFAULT 0,
+	-- 正答者の試験得点合計、全回答者の試験得点合計・二乗合計（点双列相関の算出用）
+	correct_score_sum   BIGINT     NOT NULL DEFAULT 0,
+	score_sum           BIGINT     NOT NULL DEFAULT 0,
+	score_square_sum    BIGINT     NOT NULL DEFAULT 0,
+	last_modified_date  TIMESTAMP,
+	PRIMARY KEY (exam_section_id, question_id)
+);
+
+-- 処理済みの試験結果ID（1行のみ）
+CREATE TABLE IF NOT EXISTS t_exam_item_stats_progress (
+	progress_id         SMALLINT   NOT NULL,
+	last_exam_result_id INTEGER    NOT NULL DEFAULT 0,
+	last_modified_date  TIMESTAMP,
+	PRIMARY KEY (progress_id)
+);
+
+INSERT INTO t_exam_item_stats_progress (progress_id, last_exam_result_id, last_modified_date)
+VALUES (1, 0, CURRENT_TIMESTAMP)
+ON CONFLICT (progress_id) DO NOTHING;
+
+-- 試験結果詳細の試験結果ID検索用インデックス
+CREATE INDEX IF NOT EXISTS ix_t_exam_result_detail_exam_result_id
+	ON t_exam_result_detail (exam_result_id);
@@ -0,0 +1,31 @@
+-- ============================================================
+-- 試験結果テーブル 追加定義
+-- ============================================================
+
+-- 試験結果一覧のキーセットページング用インデックス
+-- TExamResultMapper#getExamResultList の並び順（試験・セクション紐づけID＋試験結果ID）と一致させること。
+CREATE INDEX IF NOT EXISTS ix_t_exam_result_exam_section_id_exam_result_id
+	ON t_exam_result (exam_section_id, exam_result_id)
+	WHERE delete_flg = 0;
+
+-- 採点対象（初回受験）の試験結果を受験者×試験・セクション紐づけごとに1件に制限する部分一意インデックス
+-- TExamResultMapper#insertMarkingFirst の ON CONFLICT 句の対象であり、条件を一致させること。
+-- 既存データに採点対象が重複している場合は、試験結果IDが最小のもの以外を採点対象外とする。
+-- t_exam_section_stats.sql・t_exam_item_stats.sql の初期作成より前に適用すること。
+UPDATE t_exam_result t1
+SET mark_flg = 0
+WHERE t1.mark_flg = 1
+	AND t1.delete_flg = 0
+	AND EXISTS (
+		SELECT 1
+		FROM t_exam_result t2
+		WHERE t2.exam_section_id = t1.exam_section_id
+			AND t2.lms_user_id = t1.lms_user_id
+			AND t2.mark_flg = 1
+			AND t2.delete_flg = 0
+			AND t2.exam_result_id < t1.exam_result_id
+	);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_t_exam_result_mark
+	ON t_exam_result (exam_section_id, lms_user_id)
+	WHERE mark_flg = 1 AND delete_flg = 0;
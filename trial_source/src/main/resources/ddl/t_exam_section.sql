@@ -0,0 +1,9 @@
+-- ============================================================
+-- 試験・セクション紐づけテーブル 追加定義
+-- ============================================================
+
+-- 公開予定の試験の事前読込用インデックス
+-- MExamMapper#getUpcomingExamSectionList の公開日時の範囲検索に使用する。
+CREATE INDEX IF NOT EXISTS ix_t_exam_section_public_date
+	ON t_exam_section (public_date)
+	WHERE delete_flg = 0;
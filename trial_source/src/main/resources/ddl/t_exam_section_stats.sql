@@ -0,0 +1,100 @@
+-- ============================================================
+-- 試験統計（試験セクション別）テーブル
+-- ============================================================
+
+-- 試験セクションごとの採点対象（mark_flg = 1）の受験件数、得点合計、得点二乗合計、得点分布を保持する。
+-- ExamService#insert で採点対象の試験結果を登録した際、同一トランザクションで加算する。
+-- score_histogram[n + 1] は得点 n の件数（未出現の得点は NULL）。
+CREATE TABLE IF NOT EXISTS t_exam_section_stats (
+	exam_section_id     INTEGER    NOT NULL,
+	result_count        INTEGER    NOT NULL DEFAULT 0,
+	score_sum           BIGINT     NOT NULL DEFAULT 0,
+	score_square_sum    BIGINT     NOT NULL DEFAULT 0,
+	score_histogram     INTEGER[]  NOT NULL DEFAULT '{}',
+	last_modified_date  TIMESTAMP,
+	PRIMARY KEY (exam_section_id)
+);
+
+-- 既存データからの初期作成（適用時に1回実行する）
+INSERT INTO t_exam_section_stats (
+	exam_section_id,
+	result_count,
+	score_sum,
+	score_square_sum,
+	score_histogram,
+	last_modified_date
+)
+SELECT
+	t1.exam_section_id,
+	SUM(t1.score_count),
+	SUM(CAST(t1.score AS BIGINT) * t1.score_count),
+	SUM(CAST(t1.score AS BIGINT) * t1.score * t1.score_count),
+	ARRAY(
+		SELECT NULLIF(COUNT(t3.score), 0)
+		FROM GENERATE_SERIES(0, MAX(t1.score)) AS t2(score)
+			LEFT OUTER JOIN t_exam_result t3 ON t3.exam_section_id = t1.exam_section_id
+				AND t3.score = t2.score AND t3.mark_flg = 1 AND t3.delete_flg = 0
+		GROUP BY t2.score
+		ORDER BY t2.score),
+	CURRENT_TIMESTAMP
+FROM (
+	SELECT exam_section_id, score, COUNT(*) AS score_count
+	FROM t_exam_result
+	WHERE mark_flg = 1
+	  AND delete_flg = 0
+	GROUP BY exam_section_id, score
+) t1
+GROUP BY t1.exam_section_id
+ON CONFLICT (exam_section_id) DO NOTHING;
+
+-- ============================================================
+-- 試験統計（試験別）テーブル
+-- ============================================================
+
+-- 試験ごとの問題数（削除されていない問題）を保持する。
+-- 問題マスタの登録・更新・削除時にトリガーで再集計する。
+CREATE TABLE IF NOT EXISTS m_exam_stats (
+	exam_id             INTEGER    NOT NULL,
+	num_of_question     INTEGER    NOT NULL DEFAULT 0,
+	last_modified_date  TIMESTAMP,
+	PRIMARY KEY (exam_id)
+);
+
+CREATE OR REPLACE FUNCTION fn_m_exam_stats_refresh(target_exam_id INTEGER) RETURNS VOID AS $$
+	INSERT INTO m_exam_stats (exam_id, num_of_question, last_modified_date)
+	SELECT target_exam_id, COUNT(*), CURRENT_TIMESTAMP
+	FROM m_question
+	WHERE exam_id = target_exam_id
+	  AND delete_flg = 0
+	ON CONFLICT (exam_id) DO UPDATE
+	SET
+		num_of_question    = EXCLUDED.num_of_question,
+		last_modified_date = EXCLUDED.last_modified_date;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION fn_m_question_exam_stats() RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'DELETE' THEN
+		PERFORM fn_m_exam_stats_refresh(OLD.exam_id);
+	ELSE
+		PERFORM fn_m_exam_stats_refresh(NEW.exam_id);
+		IF TG_OP = 'UPDATE' AND OLD.exam_id IS DISTINCT FROM NEW.exam_id THEN
+			PERFORM fn_m_exam_stats_refresh(OLD.exam_id);
+		END IF;
+	END IF;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tr_m_question_exam_stats ON m_question;
+CREATE TRIGGER tr_m_question_exam_stats
+	AFTER INSERT OR UPDATE OF exam_id, delete_flg OR DELETE ON m_question
+	FOR EACH ROW EXECUTE FUNCTION fn_m_question_exam_stats();
+
+-- 既存データからの初期作成（適用時に1回実行する）
+INSERT INTO m_exam_stats (exam_id, num_of_question, last_modified_date)
+SELECT t1.exam_id, COUNT(t2.question_id), CURRENT_TIMESTAMP
+FROM m_exam t1
+	LEFT OUTER JOIN m_question t2 ON t2.exam_id = t1.exam_id AND t2.delete_flg = 0
+GROUP BY t1.exam_id
+ON CONFLICT (exam_id) DO NOTHING;
@@ -0,0 +1,20 @@
+-- ============================================================
+-- 勤怠情報（受講生入力）テーブル 追加定義
+-- ============================================================
+
+-- LMSユーザーID＋日付の一意制約
+-- TStudentAttendanceMapper#upsertList の ON CONFLICT で使用する。
+-- 適用前に同一ユーザー・同一日付の重複レコードが無いことを確認すること。
+CREATE UNIQUE INDEX IF NOT EXISTS uq_t_student_attendance_lms_user_id_training_date
+	ON t_student_attendance (lms_user_id, training_date);
+
+-- 勤怠情報未入力の判定用部分インデックス
+-- TStudentAttendanceMapper#existsNotEnter の条件と一致させること。
+CREATE INDEX IF NOT EXISTS ix_t_student_attendance_not_enter
+	ON t_student_attendance (lms_user_id, training_date)
+	WHERE delete_flg = 0
+	  AND status <> 1
+	  AND (training_start_time = ''
+	    OR training_end_time = ''
+	    OR training_start_time IS NULL
+	    OR training_end_time IS NULL);
@@ -0,0 +1,63 @@
+-- ============================================================
+-- 勤怠集計（受講生・月別）テーブル
+-- ============================================================
+
+-- 受講生ごと・月ごとの勤怠状態件数、勤務時間、中抜け時間、未入力件数を保持する。
+-- StudentAttendanceService の打刻・直接編集処理で対象月の行を再集計して更新する。
+-- 未入力件数は日付の変更でも変わるため、AttendanceNotEnterUtil#rollover で毎日0時に再集計する。
+CREATE TABLE IF NOT EXISTS t_student_attendance_summary (
+	lms_user_id                    INTEGER   NOT NULL,
+	target_month                   DATE      NOT NULL,
+	none_count                     INTEGER   NOT NULL DEFAULT 0,
+	absent_count                   INTEGER   NOT NULL DEFAULT 0,
+	tardy_count                    INTEGER   NOT NULL DEFAULT 0,
+	leaving_early_count            INTEGER   NOT NULL DEFAULT 0,
+	tardy_and_leaving_early_count  INTEGER   NOT NULL DEFAULT 0,
+	work_minute                    INTEGER   NOT NULL DEFAULT 0,
+	blank_minute                   INTEGER   NOT NULL DEFAULT 0,
+	not_enter_count                INTEGER   NOT NULL DEFAULT 0,
+	last_modified_date             TIMESTAMP,
+	PRIMARY KEY (lms_user_id, target_month)
+);
+
+-- 既存データからの初期作成（適用時に1回実行する）
+INSERT INTO t_student_attendance_summary (
+	lms_user_id,
+	target_month,
+	none_count,
+	absent_count,
+	tardy_count,
+	leaving_early_count,
+	tardy_and_leaving_early_count,
+	work_minute,
+	blank_minute,
+	not_enter_count,
+	last_modified_date
+)
+SELECT
+	lms_user_id,
+	CAST(DATE_TRUNC('month', training_date) AS DATE),
+	COUNT(*) FILTER (WHERE status = 0),
+	COUNT(*) FILTER (WHERE status = 1),
+	COUNT(*) FILTER (WHERE status = 2),
+	COUNT(*) FILTER (WHERE status = 3),
+	COUNT(*) FILTER (WHERE status = 4),
+	COALESCE(SUM(
+		CASE WHEN training_start_time ~ '^[0-9]{1,2}:[0-9]{2}$'
+		      AND training_end_time ~ '^[0-9]{1,2}:[0-9]{2}$'
+		THEN GREATEST(0,
+			CAST(SPLIT_PART(training_end_time, ':', 1) AS INTEGER) * 60
+			+ CAST(SPLIT_PART(training_end_time, ':', 2) AS INTEGER)
+			- CAST(SPLIT_PART(training_start_time, ':', 1) AS INTEGER) * 60
+			- CAST(SPLIT_PART(training_start_time, ':', 2) AS INTEGER)
+			- COALESCE(blank_time, 0))
+		ELSE 0 END), 0),
+	COALESCE(SUM(blank_time), 0),
+	COUNT(*) FILTER (WHERE status <> 1
+		AND training_date < CURRENT_DATE
+		AND (COALESCE(training_start_time, '') = '' OR COALESCE(training_end_time, '') = '')),
+	CURRENT_TIMESTAMP
+FROM t_student_attendance
+WHERE delete_flg = 0
+GROUP BY lms_user_id, CAST(DATE_TRUNC('month', training_date) AS DATE)
+ON CONFLICT (lms_user_id, target_month) DO NOTHING;
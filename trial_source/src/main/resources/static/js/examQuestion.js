@@ -3,9 +3,14 @@
  * 
  * @author 東京ITスクール
  */
+var timeUpTimer;
+
 $(function(){
 	setInterval("timeCount()", 1000);
-	setTimeout("timeUp()", limitTimeMin * 60 * 1000 - timeMSec + 1000);
+	scheduleTimeUp();
+	$('#examQuestionForm input[type="radio"]').on('change', function() {
+		autosave($(this));
+	});
 });
 
 function timeCount() {
@@ -13,8 +18,42 @@ function timeCount() {
 	$('.sendTime').val(timeMSec);
 }
 
+/**
+ * 制限時間の到達処理を残り時間で予約する（予約済みの場合は取り消して予約し直す）
+ */
+function scheduleTimeUp() {
+	clearTimeout(timeUpTimer);
+	timeUpTimer = setTimeout(timeUp, limitTimeMin * 60 * 1000 - timeMSec + 1000);
+}
+
 function timeUp() {
 	alert('制限時間となりました。回答を送信します。');
 	$('.sendTime').val(limitTimeMin * 60 * 1000);
 	$('#examQuestionForm').submit();
 }
+
+/**
+ * 回答の自動保存（経過時間はサーバーの値に合わせる）
+ */
+function autosave(radio) {
+	const index = radio.attr('name').replace(/^answer\[(\d+)\]$/, '$1');
+	$.ajax({
+		url : '/lms/exam/autosave',
+		type : 'POST',
+		async : true,
+		dataType : 'json',
+		cache : false,
+		data : {
+			examSectionId : $('#examQuestionForm input[name="examSectionId"]').val(),
+			index : index,
+			reply : radio.val()
+		},
+		success : function(examAutosaveDto) {
+			if (examAutosaveDto.result && examAutosaveDto.time != null) {
+				timeMSec = examAutosaveDto.time;
+				$('.sendTime').val(timeMSec);
+				scheduleTimeUp();
+			}
+		}
+	});
+}
@@ -0,0 +1,236 @@
+package jp.co.sss.lms.mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.TrainingTime;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 勤怠情報（受講生入力）テーブルマッパーの出勤・退勤打刻を、アプリケーションのデータソース（PostgreSQL）に対して試験する。<br>
+ * 勤怠情報が無い研修日（2099年）を使用し、登録したデータは試験後に削除する。<br>
+ * 朝の出勤集中を想定した負荷試験（Case.2_1）は benchmark タグを指定した場合のみ実行する。<br>
+ *
+ * */
+@SpringBootTest
+public class TStudentAttendanceMapperTest {
+
+	/** 負荷試験の同時実行数 */
+	private static final int THREAD_COUNT = 32;
+	/** 負荷試験の受講生数（上限） */
+	private static final int USER_COUNT = 500;
+
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Date trainingDate;
+	private List<Map<String, Object>> userList;
+
+	@BeforeEach
+	public void setup() {
+		// 勤怠情報が無い研修日
+		LocalDate date = LocalDate.of(2099, 1, 1);
+		while (jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_student_attendance WHERE training_date = ?", Integer.class,
+				java.sql.Date.valueOf(date)) > 0) {
+			date = date.plusDays(1);
+		}
+		trainingDate = java.sql.Date.valueOf(date);
+		userList = jdbcTemplate.queryForList("SELECT lms_user_id, account_id FROM m_lms_user"
+				+ " WHERE delete_flg = 0 ORDER BY lms_user_id LIMIT ?", USER_COUNT);
+		Assumptions.assumeFalse(userList.isEmpty(), "ユーザーデータがありません");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (trainingDate != null) {
+			jdbcTemplate.update("DELETE FROM t_student_attendance WHERE training_date = ?",
+					trainingDate);
+		}
+	}
+
+	/**
+	 * Case.1_1 退勤打刻_遅刻早退の判定<br>
+	 * <br>
+	 * ■対象メソッド：punchOut()<br>
+	 * ■試験内容：出勤時刻が「H:mm」「HHmm」形式の場合も、時刻の前後で遅刻・早退が判定されること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		Integer lmsUserId = (Integer) userList.get(0).get("lms_user_id");
+
+		// 8:55出勤・17:30退勤（文字列比較では "8:55" > "09:00" となり遅刻と誤判定していた）
+		assertEquals(1, punchIn(userList.get(0), "8:55"));
+		assertEquals(Constants.PUNCH_OUT_RESULT_SUCCESS, punchOut(lmsUserId, "17:30"));
+		assertEquals(AttendanceStatusEnum.LEAVING_EARLY.code, getStatus(lmsUserId));
+
+		// 0905出勤・18:00退勤
+		jdbcTemplate.update("UPDATE t_student_attendance SET training_start_time = '0905',"
+				+ " training_end_time = '' WHERE lms_user_id = ? AND training_date = ?",
+				lmsUserId, trainingDate);
+		assertEquals(Constants.PUNCH_OUT_RESULT_SUCCESS, punchOut(lmsUserId, "18:00"));
+		assertEquals(AttendanceStatusEnum.TARDY.code, getStatus(lmsUserId));
+	}
+
+	/**
+	 * Case.1_2 退勤打刻_打刻できない場合<br>
+	 * <br>
+	 * ■対象メソッド：punchOut()<br>
+	 * ■試験内容：出勤前・退勤済み・出勤時刻より前の退勤の場合に、それぞれの結果コードが返却され更新されないこと<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		Integer lmsUserId = (Integer) userList.get(0).get("lms_user_id");
+
+		assertEquals(Constants.PUNCH_OUT_RESULT_PUNCHINEMPTY, punchOut(lmsUserId, "18:00"));
+		assertEquals(1, punchIn(userList.get(0), "9:30"));
+		// 文字列比較では "9:30" > "10:00" となり打刻できなかった
+		assertEquals(Constants.PUNCH_OUT_RESULT_TRAININGTIMERANGE, punchOut(lmsUserId, "9:00"));
+		assertEquals(Constants.PUNCH_OUT_RESULT_SUCCESS, punchOut(lmsUserId, "10:00"));
+		assertEquals(Constants.PUNCH_OUT_RESULT_ALREADYEXISTS, punchOut(lmsUserId, "18:00"));
+		assertEquals("10:00", jdbcTemplate.queryForObject("SELECT training_end_time"
+				+ " FROM t_student_attendance WHERE lms_user_id = ? AND training_date = ?",
+				String.class, lmsUserId, trainingDate));
+	}
+
+	/**
+	 * Case.2_1 出勤・退勤打刻_同時実行<br>
+	 * <br>
+	 * ■対象メソッド：punchIn()、punchOut()<br>
+	 * ■試験内容：全受講生が同時に出勤（二重押下を含む）・退勤した場合に、1人1件のみ打刻され、
+	 * 処理件数/秒と1打刻あたりの処理時間を出力する<br>
+	 */
+	@Test
+	@Tag("benchmark")
+	public void testCase2_1() throws Exception {
+		// 出勤（1人2回ずつ押下）
+		List<Integer> punchInIndexList = new ArrayList<>();
+		for (int i = 0; i < userList.size() * 2; i++) {
+			punchInIndexList.add(i % userList.size());
+		}
+		long startTime = System.nanoTime();
+		long[] punchInElapsed = runConcurrently(punchInIndexList,
+				i -> punchIn(userList.get(i), "8:50"));
+		long punchInTotal = System.nanoTime() - startTime;
+
+		// 退勤
+		List<Integer> punchOutIndexList = new ArrayList<>();
+		for (int i = 0; i < userList.size(); i++) {
+			punchOutIndexList.add(i);
+		}
+		startTime = System.nanoTime();
+		long[] punchOutElapsed = runConcurrently(punchOutIndexList,
+				i -> punchOut((Integer) userList.get(i).get("lms_user_id"), "18:10"));
+		long punchOutTotal = System.nanoTime() - startTime;
+
+		assertEquals(userList.size(), jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_student_attendance WHERE training_date = ?"
+						+ " AND training_end_time = '18:10'",
+				Integer.class, trainingDate));
+		System.out.println(String.format("punch (%d users, %d threads):"
+				+ " punch in %.0f req/s p95 %.2fms / punch out %.0f req/s p95 %.2fms",
+				userList.size(), THREAD_COUNT,
+				punchInElapsed.length / (punchInTotal / 1_000_000_000d), percentile95(punchInElapsed),
+				punchOutElapsed.length / (punchOutTotal / 1_000_000_000d),
+				percentile95(punchOutElapsed)));
+	}
+
+	/**
+	 * 打刻を同時に実行し、1打刻ごとの処理時間（ナノ秒）を返す
+	 *
+	 * @param indexList 打刻するユーザーの添字
+	 * @param puncher   打刻処理
+	 * @return 処理時間
+	 * @throws Exception
+	 */
+	private long[] runConcurrently(List<Integer> indexList, IntConsumer puncher)
+			throws Exception {
+		long[] elapsed = new long[indexList.size()];
+		ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futureList = new ArrayList<>();
+		try {
+			for (int i = 0; i < indexList.size(); i++) {
+				int n = i;
+				futureList.add(executor.submit(() -> {
+					start.await();
+					long startTime = System.nanoTime();
+					puncher.accept(indexList.get(n));
+					elapsed[n] = System.nanoTime() - startTime;
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futureList) {
+				future.get(300, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return elapsed;
+	}
+
+	private int punchIn(Map<String, Object> user, String trainingStartTime) {
+		Integer lmsUserId = (Integer) user.get("lms_user_id");
+		Date now = new Date();
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setLmsUserId(lmsUserId);
+		tStudentAttendance.setTrainingDate(trainingDate);
+		tStudentAttendance.setTrainingStartTime(trainingStartTime);
+		tStudentAttendance.setTrainingEndTime("");
+		tStudentAttendance.setStatus(AttendanceStatusEnum.NONE.code);
+		tStudentAttendance.setNote("");
+		tStudentAttendance.setAccountId((Integer) user.get("account_id"));
+		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tStudentAttendance.setFirstCreateUser(lmsUserId);
+		tStudentAttendance.setFirstCreateDate(now);
+		tStudentAttendance.setLastModifiedUser(lmsUserId);
+		tStudentAttendance.setLastModifiedDate(now);
+		return tStudentAttendanceMapper.punchIn(tStudentAttendance);
+	}
+
+	private int punchOut(Integer lmsUserId, String trainingEndTime) {
+		return tStudentAttendanceMapper.punchOut(lmsUserId, trainingDate, trainingEndTime,
+				new TrainingTime(trainingEndTime).toMinutes(),
+				Constants.SSS_WORK_START_TIME.toMinutes(), Constants.SSS_WORK_END_TIME.toMinutes(),
+				lmsUserId, new Date(), Constants.DB_FLG_FALSE);
+	}
+
+	private Short getStatus(Integer lmsUserId) {
+		return jdbcTemplate.queryForObject("SELECT status FROM t_student_attendance"
+				+ " WHERE lms_user_id = ? AND training_date = ?", Short.class, lmsUserId, trainingDate);
+	}
+
+	private double percentile95(long[] elapsed) {
+		long[] sorted = elapsed.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1_000_000d;
+	}
+
+}
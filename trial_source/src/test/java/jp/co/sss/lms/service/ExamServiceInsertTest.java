@@ -0,0 +1,310 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.mapper.TExamSectionStatsMapper;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 試験情報サービスの試験結果登録を、アプリケーションのデータソース（PostgreSQL）に対して試験する。<br>
+ * 同一受験者・同一試験セクションへの同時提出でも、採点対象（mark_flg = 1）の試験結果が1件のみとなり、
+ * 試験統計への加算も1回のみであることを確認する。<br>
+ * 試験結果が無い受験者×試験セクションの組み合わせを使用し、登録したデータは試験後に削除する。<br>
+ * 提出の処理時間の比較（Case.2_1）は benchmark タグを指定した場合のみ実行する。<br>
+ *
+ * */
+@SpringBootTest
+public class ExamServiceInsertTest {
+
+	/** 同時提出数 */
+	private static final int THREAD_COUNT = 8;
+	/** 処理時間比較の1スレッドあたりの提出数（ウォームアップ） */
+	private static final int WARM_UP_COUNT = 5;
+	/** 処理時間比較の1スレッドあたりの提出数（計測） */
+	private static final int MEASURE_COUNT = 20;
+
+	@Autowired
+	private ExamService examService;
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private TExamSectionStatsMapper tExamSectionStatsMapper;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MockHttpSession session;
+	private Integer examId;
+	private Integer examSectionId;
+	private Integer lmsUserId;
+	private boolean statsExists;
+
+	@BeforeEach
+	public void setup() {
+		// 試験結果が無い受験者×試験セクション（問題がある試験、統計が無いセクションを優先）
+		List<Map<String, Object>> targetList = jdbcTemplate.queryForList(
+				"SELECT t1.exam_section_id, t1.exam_id, t2.lms_user_id, t2.account_id"
+						+ " FROM t_exam_section t1"
+						+ " CROSS JOIN m_lms_user t2"
+						+ " WHERE t1.delete_flg = 0 AND t2.delete_flg = 0"
+						+ " AND EXISTS (SELECT 1 FROM m_question t3"
+						+ "   WHERE t3.exam_id = t1.exam_id AND t3.delete_flg = 0)"
+						+ " AND NOT EXISTS (SELECT 1 FROM t_exam_result t4"
+						+ "   WHERE t4.exam_section_id = t1.exam_section_id"
+						+ "   AND t4.lms_user_id = t2.lms_user_id)"
+						+ " ORDER BY EXISTS (SELECT 1 FROM t_exam_section_stats t5"
+						+ "   WHERE t5.exam_section_id = t1.exam_section_id),"
+						+ " t1.exam_section_id, t2.lms_user_id"
+						+ " LIMIT 1");
+		Assumptions.assumeFalse(targetList.isEmpty(), "試験データがありません");
+		Map<String, Object> target = targetList.get(0);
+		examSectionId = (Integer) target.get("exam_section_id");
+		examId = (Integer) target.get("exam_id");
+		lmsUserId = (Integer) target.get("lms_user_id");
+		statsExists = countStats() > 0;
+
+		// ワーカースレッドでも同じログイン情報（セッションスコープ）を参照できるようにする
+		session = new MockHttpSession();
+		bindSession();
+		loginUserDto.setLmsUserId(lmsUserId);
+		loginUserDto.setAccountId((Integer) target.get("account_id"));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (examSectionId != null) {
+			jdbcTemplate.update("DELETE FROM t_exam_result_detail WHERE exam_result_id IN"
+					+ " (SELECT exam_result_id FROM t_exam_result"
+					+ " WHERE exam_section_id = ? AND lms_user_id = ?)", examSectionId, lmsUserId);
+			jdbcTemplate.update("DELETE FROM t_exam_result WHERE exam_section_id = ? AND lms_user_id = ?",
+					examSectionId, lmsUserId);
+			if (statsExists) {
+				tExamSectionStatsMapper.refresh(List.of(examSectionId), new Date(),
+						Constants.DB_FLG_FALSE);
+			} else {
+				jdbcTemplate.update("DELETE FROM t_exam_section_stats WHERE exam_section_id = ?",
+						examSectionId);
+			}
+		}
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	/**
+	 * Case.1_1 試験結果登録_同時提出<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験内容：同一受験者が同一試験セクションへ同時に提出した場合、全件登録され、
+	 * 採点対象は1件のみ、試験統計の受験件数の加算も1件のみであること<br>
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		int resultCountBefore = getResultCount();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+		CountDownLatch ready = new CountDownLatch(THREAD_COUNT);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futureList = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREAD_COUNT; i++) {
+				futureList.add(executor.submit(() -> {
+					bindSession();
+					try {
+						ready.countDown();
+						start.await();
+						return examService.insert(examQuestionForm());
+					} finally {
+						RequestContextHolder.resetRequestAttributes();
+					}
+				}));
+			}
+			ready.await();
+			start.countDown();
+			for (Future<Integer> future : futureList) {
+				assertNotNull(future.get(60, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(THREAD_COUNT, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_exam_result WHERE exam_section_id = ? AND lms_user_id = ?",
+				Integer.class, examSectionId, lmsUserId));
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_exam_result WHERE exam_section_id = ? AND lms_user_id = ?"
+						+ " AND mark_flg = 1 AND delete_flg = 0",
+				Integer.class, examSectionId, lmsUserId));
+		assertEquals(resultCountBefore + 1, getResultCount());
+	}
+
+	/**
+	 * Case.2_1 試験結果登録_処理時間の比較<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験内容：同時提出時の1提出あたりの処理時間を、変更前の方式（試験結果件数の取得、
+	 * 試験結果詳細の1問ずつの登録、いずれも自動コミット）と比較して出力する<br>
+	 */
+	@Test
+	@Tag("benchmark")
+	public void testCase2_1() throws Exception {
+		List<Integer> questionIdList = jdbcTemplate.queryForList(
+				"SELECT question_id FROM m_question WHERE exam_id = ? AND delete_flg = 0"
+						+ " ORDER BY question_id",
+				Integer.class, examId);
+
+		runConcurrently(WARM_UP_COUNT, () -> submitRowByRow(questionIdList));
+		long[] rowByRow = runConcurrently(MEASURE_COUNT, () -> submitRowByRow(questionIdList));
+		runConcurrently(WARM_UP_COUNT, this::submit);
+		long[] batched = runConcurrently(MEASURE_COUNT, this::submit);
+
+		System.out.println(String.format("exam submission (%d questions, %d threads x %d):"
+				+ " row by row avg %.2fms p95 %.2fms / transactional avg %.2fms p95 %.2fms",
+				questionIdList.size(), THREAD_COUNT, MEASURE_COUNT,
+				average(rowByRow), percentile95(rowByRow), average(batched), percentile95(batched)));
+	}
+
+	/**
+	 * 同時提出を行い、1提出ごとの処理時間（ナノ秒）を返す
+	 * 
+	 * @param count     1スレッドあたりの提出数
+	 * @param submitter 提出処理（処理時間を返す）
+	 * @return 処理時間
+	 * @throws Exception
+	 */
+	private long[] runConcurrently(int count, LongSupplier submitter) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<long[]>> futureList = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREAD_COUNT; i++) {
+				futureList.add(executor.submit(() -> {
+					bindSession();
+					try {
+						start.await();
+						long[] elapsed = new long[count];
+						for (int j = 0; j < count; j++) {
+							elapsed[j] = submitter.getAsLong();
+						}
+						return elapsed;
+					} finally {
+						RequestContextHolder.resetRequestAttributes();
+					}
+				}));
+			}
+			start.countDown();
+			long[] elapsed = new long[THREAD_COUNT * count];
+			for (int i = 0; i < THREAD_COUNT; i++) {
+				System.arraycopy(futureList.get(i).get(300, TimeUnit.SECONDS), 0, elapsed, i * count,
+						count);
+			}
+			return elapsed;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 試験結果登録（現在の方式）
+	 * 
+	 * @return 処理時間（ナノ秒）
+	 */
+	private long submit() {
+		long startTime = System.nanoTime();
+		examService.insert(examQuestionForm());
+		return System.nanoTime() - startTime;
+	}
+
+	/**
+	 * 試験結果登録（変更前の方式）<br>
+	 * 採点対象の判定は試験結果件数の取得のみ行い、一意インデックスと競合しないよう採点対象外として登録する
+	 * 
+	 * @param questionIdList
+	 * @return 処理時間（ナノ秒）
+	 */
+	private long submitRowByRow(List<Integer> questionIdList) {
+		long startTime = System.nanoTime();
+		Date now = new Date();
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_exam_result"
+				+ " WHERE exam_section_id = ? AND lms_user_id = ? AND delete_flg = 0",
+				Integer.class, examSectionId, lmsUserId);
+		Integer examResultId = jdbcTemplate.queryForObject("INSERT INTO t_exam_result"
+				+ " (exam_section_id, lms_user_id, score, time, mark_flg, account_id, delete_flg,"
+				+ " first_create_user, first_create_date, last_modified_user, last_modified_date)"
+				+ " VALUES (?, ?, 0, 60000, 0, ?, 0, ?, ?, ?, ?) RETURNING exam_result_id",
+				Integer.class, examSectionId, lmsUserId, loginUserDto.getAccountId(), lmsUserId, now,
+				lmsUserId, now);
+		for (Integer questionId : questionIdList) {
+			jdbcTemplate.update("INSERT INTO t_exam_result_detail"
+					+ " (exam_result_id, lms_user_id, question_id, reply, account_id, delete_flg,"
+					+ " first_create_user, first_create_date, last_modified_user, last_modified_date)"
+					+ " VALUES (?, ?, ?, 0, ?, 0, ?, ?, ?, ?)",
+					examResultId, lmsUserId, questionId, loginUserDto.getAccountId(), lmsUserId, now,
+					lmsUserId, now);
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	private double average(long[] elapsed) {
+		return Arrays.stream(elapsed).average().orElse(0) / 1_000_000d;
+	}
+
+	private double percentile95(long[] elapsed) {
+		long[] sorted = elapsed.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1_000_000d;
+	}
+
+	private ExamQuestionForm examQuestionForm() {
+		ExamQuestionForm examQuestionForm = new ExamQuestionForm();
+		examQuestionForm.setExamId(examId);
+		examQuestionForm.setExamSectionId(examSectionId);
+		examQuestionForm.setTime(60000);
+		return examQuestionForm;
+	}
+
+	private void bindSession() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setSession(session);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private int countStats() {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM t_exam_section_stats WHERE exam_section_id = ?",
+				Integer.class, examSectionId);
+	}
+
+	private int getResultCount() {
+		List<Integer> resultCountList = jdbcTemplate.queryForList(
+				"SELECT result_count FROM t_exam_section_stats WHERE exam_section_id = ?",
+				Integer.class, examSectionId);
+		return resultCountList.isEmpty() ? 0 : resultCountList.get(0);
+	}
+
+}
@@ -0,0 +1,170 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.mapper.TExamSectionStatsMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamAttemptUtil;
+import jp.co.sss.lms.util.ExamDefinitionUtil;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 試験情報サービスの試験結果登録を試験する。<br>
+ * 採点対象の重複防止は部分一意インデックス（ux_t_exam_result_mark）で行うため、
+ * ここでは登録結果の採点対象フラグに従って後続処理が行われることを確認する
+ * （同時提出時のインデックスの動作は ExamServiceInsertTest で確認する）。<br>
+ *
+ * */
+public class ExamServiceTest {
+
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private TExamSectionStatsMapper tExamSectionStatsMapper;
+	@Mock
+	private MExamMapper mExamMapper;
+	@Mock
+	private ExamAttemptUtil examAttemptUtil;
+
+	@InjectMocks
+	private ExamService examService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(100);
+		loginUserDto.setAccountId(1);
+		ReflectionTestUtils.setField(examService, "loginUserDto", loginUserDto);
+
+		// 2問（正答1・2）の試験定義（採点は実際の試験定義で行う）
+		ExamDefinitionUtil examDefinitionUtil = new ExamDefinitionUtil();
+		ReflectionTestUtils.setField(examDefinitionUtil, "mExamMapper", mExamMapper);
+		ReflectionTestUtils.setField(examDefinitionUtil, "checkSecond", 60L);
+		ReflectionTestUtils.setField(examDefinitionUtil, "maxSize", 100);
+		ReflectionTestUtils.setField(examService, "examDefinitionUtil", examDefinitionUtil);
+		when(mExamMapper.getExamVersion(eq(10), anyShort())).thenReturn("v1");
+		when(mExamMapper.getExamQuestion(eq(10), anyShort())).thenReturn(examQuestionDto());
+	}
+
+	/**
+	 * Case.1_1 試験結果登録_採点対象として登録<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験内容：登録結果が採点対象の場合、試験統計へ加算され、試験結果IDが試験結果詳細に設定されること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		when(tExamResultMapper.insertMarkingFirst(any()))
+				.thenReturn(inserted(500, Constants.DB_FLG_TRUE));
+
+		Integer examResultId = examService.insert(examQuestionForm());
+
+		assertEquals(500, examResultId);
+		verify(tExamSectionStatsMapper).addScore(eq(20), eq((short) 1), any());
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TExamResultDetail>> captor = ArgumentCaptor.forClass(List.class);
+		verify(tExamResultDetailMapper).insertList(captor.capture());
+		assertEquals(2, captor.getValue().size());
+		assertEquals(500, captor.getValue().get(0).getExamResultId());
+		assertEquals((short) 1, captor.getValue().get(0).getReply());
+		assertEquals((short) 0, captor.getValue().get(1).getReply());
+	}
+
+	/**
+	 * Case.1_2 試験結果登録_採点対象外として登録<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験内容：採点対象の試験結果が既に有り採点対象外として登録された場合、試験統計へ加算されないこと<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		when(tExamResultMapper.insertMarkingFirst(any()))
+				.thenReturn(inserted(501, Constants.DB_FLG_FALSE));
+
+		Integer examResultId = examService.insert(examQuestionForm());
+
+		assertEquals(501, examResultId);
+		verify(tExamSectionStatsMapper, never()).addScore(any(), any(), any());
+		verify(tExamResultDetailMapper).insertList(any());
+	}
+
+	/**
+	 * Case.1_3 試験結果登録_受験中試験が無い<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験内容：受験中試験が無い（期限切れ・追い出し）場合、画面から送信された経過時間は使用せず、
+	 * 制限時間を経過時間として登録すること<br>
+	 */
+	@Test
+	public void testCase1_3() {
+		when(tExamResultMapper.insertMarkingFirst(any()))
+				.thenReturn(inserted(502, Constants.DB_FLG_TRUE));
+		ExamQuestionForm examQuestionForm = examQuestionForm();
+		examQuestionForm.setTime(1);
+
+		examService.insert(examQuestionForm);
+
+		ArgumentCaptor<TExamResult> captor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).insertMarkingFirst(captor.capture());
+		assertEquals(30 * 60 * 1000, captor.getValue().getTime());
+	}
+
+	private ExamQuestionDto examQuestionDto() {
+		List<QuestionDto> questionDtoList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(1001 + i);
+			questionDto.setGenreDetailName("ジャンル" + i);
+			questionDto.setAnswerNum((short) (i + 1));
+			questionDtoList.add(questionDto);
+		}
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(10);
+		examQuestionDto.setLimitTime(30);
+		examQuestionDto.setQuestionDtoList(questionDtoList);
+		return examQuestionDto;
+	}
+
+	private ExamQuestionForm examQuestionForm() {
+		ExamQuestionForm examQuestionForm = new ExamQuestionForm();
+		examQuestionForm.setExamId(10);
+		examQuestionForm.setExamSectionId(20);
+		examQuestionForm.setAnswer(new Short[] { 1, null });
+		examQuestionForm.setTime(60000);
+		return examQuestionForm;
+	}
+
+	private TExamResult inserted(Integer examResultId, short markFlg) {
+		TExamResult tExamResult = new TExamResult();
+		tExamResult.setExamResultId(examResultId);
+		tExamResult.setMarkFlg(markFlg);
+		return tExamResult;
+	}
+
+}
@@ -0,0 +1,148 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jp.co.sss.lms.util.ExcelUtil;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * 処理時間の計測<br>
+ * レポートダウンロード（/report/download）の処理時間を、アプリケーションのデータソース（PostgreSQL）に対して計測する。<br>
+ * 変更前後の違いはテンプレートファイルの開き方のみのため、ダウンロード全体の処理時間（テンプレートキャッシュ使用）に加えて、
+ * キャッシュした内容から開く場合と従来のようにクラスパスから読み込んで開く場合の処理時間を計測し、変更前の処理時間を求める。<br>
+ * 通常のテストからは除外している。実行する場合は以下のように指定する。<br>
+ * mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=ReportServiceDownloadBenchmarkTest<br>
+ *
+ * */
+@SpringBootTest
+@Tag("benchmark")
+public class ReportServiceDownloadBenchmarkTest {
+
+	/** 計測前に実行する回数（JITコンパイル待ち） */
+	private static final int WARM_UP_COUNT = 20;
+	/** 計測する回数 */
+	private static final int MEASURE_COUNT = 100;
+
+	@Autowired
+	private ReportService reportService;
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Integer dailyReportId;
+	private Integer dailyReportSubmitId;
+	private String templatePath;
+
+	@BeforeEach
+	public void setup() {
+		List<Map<String, Object>> targetList = jdbcTemplate.queryForList(
+				"SELECT t1.daily_report_submit_id, t1.daily_report_id, t2.file_name"
+						+ " FROM t_daily_report_submit t1"
+						+ " INNER JOIN m_daily_report t2 ON t2.daily_report_id = t1.daily_report_id"
+						+ " WHERE t1.delete_flg = 0 AND t2.file_name IS NOT NULL"
+						+ " ORDER BY t1.daily_report_submit_id LIMIT 1");
+		Assumptions.assumeFalse(targetList.isEmpty(), "レポート提出データがありません");
+		Map<String, Object> target = targetList.get(0);
+		dailyReportSubmitId = (Integer) target.get("daily_report_submit_id");
+		dailyReportId = (Integer) target.get("daily_report_id");
+		templatePath = messageUtil.getMessage("setting.file.common.dir") + "/"
+				+ target.get("file_name");
+	}
+
+	/**
+	 * レポートダウンロードの処理時間の計測
+	 */
+	@Test
+	public void benchmarkDownload() throws Exception {
+		for (int i = 0; i < WARM_UP_COUNT; i++) {
+			download();
+			openCached();
+			openFromClassPath();
+		}
+		long[] downloadNanos = new long[MEASURE_COUNT];
+		long[] cachedNanos = new long[MEASURE_COUNT];
+		long[] classPathNanos = new long[MEASURE_COUNT];
+		for (int i = 0; i < MEASURE_COUNT; i++) {
+			downloadNanos[i] = download();
+			cachedNanos[i] = openCached();
+			classPathNanos[i] = openFromClassPath();
+		}
+		double download = average(downloadNanos);
+		double before = download - average(cachedNanos) + average(classPathNanos);
+		System.out.println(String.format("レポートダウンロード dailyReportSubmitId=%d"
+				+ " 変更後 平均%.2fms p95 %.2fms / 変更前 平均%.2fms"
+				+ "（テンプレート キャッシュ%.2fms クラスパス%.2fms）",
+				dailyReportSubmitId, download, percentile95(downloadNanos), before,
+				average(cachedNanos), average(classPathNanos)));
+	}
+
+	/**
+	 * レポートダウンロード
+	 *
+	 * @return 処理時間（ナノ秒）
+	 * @throws IOException
+	 */
+	private long download() throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		long startTime = System.nanoTime();
+		reportService.download(dailyReportId, dailyReportSubmitId, response);
+		long elapsed = System.nanoTime() - startTime;
+		assertTrue(response.getContentAsByteArray().length > 0);
+		return elapsed;
+	}
+
+	/**
+	 * キャッシュした内容からテンプレートファイルを開く（変更後）
+	 *
+	 * @return 処理時間（ナノ秒）
+	 * @throws Exception
+	 */
+	private long openCached() throws Exception {
+		long startTime = System.nanoTime();
+		new ExcelUtil(templatePath);
+		return System.nanoTime() - startTime;
+	}
+
+	/**
+	 * クラスパスから読み込んでテンプレートファイルを開く（変更前）
+	 *
+	 * @return 処理時間（ナノ秒）
+	 * @throws Exception
+	 */
+	private long openFromClassPath() throws Exception {
+		long startTime = System.nanoTime();
+		try (InputStream in = new ClassPathResource(templatePath).getInputStream()) {
+			WorkbookFactory.create(in);
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	private double average(long[] elapsed) {
+		return Arrays.stream(elapsed).average().orElse(0) / 1_000_000d;
+	}
+
+	private double percentile95(long[] elapsed) {
+		long[] sorted = elapsed.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1_000_000d;
+	}
+
+}
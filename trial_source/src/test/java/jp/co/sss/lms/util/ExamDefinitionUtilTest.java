@@ -0,0 +1,94 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.util.ExamDefinitionUtil.ExamDefinition;
+import jp.co.sss.lms.util.ExamScoringUtil.ExamScore;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 試験定義ユーティリティの読込と、読み込んだ試験定義による採点を試験する。<br>
+ *
+ * */
+public class ExamDefinitionUtilTest {
+
+	@Mock
+	private MExamMapper mExamMapper;
+
+	@InjectMocks
+	private ExamDefinitionUtil examDefinitionUtil;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examDefinitionUtil, "checkSecond", 60L);
+		ReflectionTestUtils.setField(examDefinitionUtil, "maxSize", 100);
+	}
+
+	/**
+	 * Case.1_1 試験定義の読込_ジャンル別小計<br>
+	 * <br>
+	 * ■対象メソッド：getExamDefinition()、ExamDefinition.score()<br>
+	 * ■試験内容：ジャンル名が出題順に番号付けされ、得点・正誤・ジャンル別小計が求められること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		when(mExamMapper.getExamVersion(eq(10), anyShort())).thenReturn("v1");
+		when(mExamMapper.getExamQuestion(eq(10), anyShort())).thenReturn(examQuestionDto(
+				question(1001, "Java基礎", 1), question(1002, "SQL", 2),
+				question(1003, "Java基礎", 3), question(1004, null, 4)));
+
+		ExamDefinition examDefinition = examDefinitionUtil.getExamDefinition(10);
+		ExamScore examScore = examDefinition.score(new byte[] { 1, 3, 3, 0 });
+
+		assertEquals(Arrays.asList("Java基礎", "SQL", null), examDefinition.getGenreNames());
+		assertEquals(2, examScore.getScore());
+		assertEquals(4, examScore.getFullScore());
+		assertTrue(examScore.isCorrect(0));
+		assertFalse(examScore.isCorrect(1));
+		assertTrue(examScore.isCorrect(2));
+		assertFalse(examScore.isCorrect(3));
+		assertEquals(2, examScore.getGenreScore(0));
+		assertEquals(2, examScore.getGenreFullScore(0));
+		assertEquals(0, examScore.getGenreScore(1));
+		assertEquals(1, examScore.getGenreFullScore(1));
+		assertEquals(0, examScore.getGenreScore(2));
+		assertEquals(1, examScore.getGenreFullScore(2));
+		// 画面に渡す問題には正答を含めない
+		assertNull(examDefinition.copyExamQuestionDto().getQuestionDtoList().get(0).getAnswerNum());
+	}
+
+	private ExamQuestionDto examQuestionDto(QuestionDto... questionDtos) {
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(10);
+		examQuestionDto.setExamName("試験");
+		examQuestionDto.setLimitTime(30);
+		examQuestionDto.setQuestionDtoList(new ArrayList<>(List.of(questionDtos)));
+		return examQuestionDto;
+	}
+
+	private QuestionDto question(Integer questionId, String genreDetailName, int answerNum) {
+		QuestionDto questionDto = new QuestionDto();
+		questionDto.setQuestionId(questionId);
+		questionDto.setGenreDetailName(genreDetailName);
+		questionDto.setAnswerNum((short) answerNum);
+		return questionDto;
+	}
+
+}
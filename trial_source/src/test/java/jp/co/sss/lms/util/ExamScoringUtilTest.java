@@ -0,0 +1,80 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import jp.co.sss.lms.util.ExamScoringUtil.ExamScore;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 試験採点ユーティリティの変換・採点処理を試験する。<br>
+ *
+ * */
+public class ExamScoringUtilTest {
+
+	/**
+	 * Case.1_1 画面の回答からの変換<br>
+	 * <br>
+	 * ■対象メソッド：toReplies()<br>
+	 * ■試験内容：null・不足・超過した回答が問題数の長さの回答配列（未回答は0）に変換されること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		assertArrayEquals(new byte[] { 0, 0, 0 }, ExamScoringUtil.toReplies(null, 3));
+		assertArrayEquals(new byte[] { 2, 0, 0 },
+				ExamScoringUtil.toReplies(new Short[] { 2, null }, 3));
+		assertArrayEquals(new byte[] { 1, 4 },
+				ExamScoringUtil.toReplies(new Short[] { 1, 4, 3 }, 2));
+	}
+
+	/**
+	 * Case.2_1 採点_1問1点<br>
+	 * <br>
+	 * ■対象メソッド：score()<br>
+	 * ■試験内容：得点・正誤・ジャンル別小計が求められ、未回答は正答未設定の問題でも不正解となること<br>
+	 */
+	@Test
+	public void testCase2_1() {
+		byte[] answerKey = { 1, 2, 3, 4, 0 };
+		byte[] replies = { 1, 3, 3, 0, 0 };
+		int[] genreIndexes = { 0, 0, 1, 1, 1 };
+		ExamScore examScore = ExamScoringUtil.score(answerKey, replies, genreIndexes, 2);
+
+		assertEquals(2, examScore.getScore());
+		assertEquals(5, examScore.getFullScore());
+		assertEquals(2, examScore.getCorrectCount());
+		assertTrue(examScore.isCorrect(0));
+		assertFalse(examScore.isCorrect(1));
+		assertTrue(examScore.isCorrect(2));
+		assertFalse(examScore.isCorrect(3));
+		assertFalse(examScore.isCorrect(4));
+		assertEquals(1, examScore.getGenreScore(0));
+		assertEquals(2, examScore.getGenreFullScore(0));
+		assertEquals(1, examScore.getGenreScore(1));
+		assertEquals(3, examScore.getGenreFullScore(1));
+	}
+
+	/**
+	 * Case.2_2 採点_配点指定・回答不足<br>
+	 * <br>
+	 * ■対象メソッド：score()<br>
+	 * ■試験内容：配点が得点に反映され、回答が不足する問題は未回答として扱われること<br>
+	 */
+	@Test
+	public void testCase2_2() {
+		byte[] answerKey = { 1, 2, 3 };
+		byte[] replies = { 1, 2 };
+		int[] points = { 2, 3, 5 };
+		int[] genreIndexes = { 0, 1, 1 };
+		ExamScore examScore = ExamScoringUtil.score(answerKey, replies, points, genreIndexes, 2);
+
+		assertEquals(5, examScore.getScore());
+		assertEquals(10, examScore.getFullScore());
+		assertEquals(2, examScore.getGenreScore(0));
+		assertEquals(3, examScore.getGenreScore(1));
+		assertEquals(8, examScore.getGenreFullScore(1));
+		assertFalse(examScore.getCorrect().get(2));
+	}
+
+}
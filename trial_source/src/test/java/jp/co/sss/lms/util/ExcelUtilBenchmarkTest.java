@@ -0,0 +1,68 @@
+package jp.co.sss.lms.util;
+
+import static jp.co.sss.lms.util.ExcelUtilTest.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 処理時間の計測<br>
+ * フィードバックコメント欄の複製を、1回の走査での複製（repeatRows）と従来の1範囲ずつの複製（sheetCopy）で比較する。<br>
+ * 通常のテストからは除外している。実行する場合は以下のように指定する。<br>
+ * mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=ExcelUtilBenchmarkTest<br>
+ *
+ * */
+@Tag("benchmark")
+public class ExcelUtilBenchmarkTest {
+
+	/** 計測前に実行する回数（JITコンパイル待ち） */
+	private static final int WARM_UP_COUNT = 20;
+	/** 計測する回数 */
+	private static final int MEASURE_COUNT = 50;
+
+	/**
+	 * フィードバック1件・10件・100件の複製時間の計測
+	 */
+	@Test
+	public void benchmarkRepeatRows() {
+		for (int count : new int[] { 1, 10, 100 }) {
+			for (int i = 0; i < WARM_UP_COUNT; i++) {
+				repeatRows(count);
+				sheetCopy(count);
+			}
+			long repeatNanos = 0;
+			long sheetCopyNanos = 0;
+			for (int i = 0; i < MEASURE_COUNT; i++) {
+				repeatNanos += repeatRows(count);
+				sheetCopyNanos += sheetCopy(count);
+			}
+			System.out.println("フィードバック" + count + "件 repeatRows="
+					+ repeatNanos / MEASURE_COUNT / 1000 + "μs sheetCopy="
+					+ sheetCopyNanos / MEASURE_COUNT / 1000 + "μs");
+		}
+	}
+
+	private long repeatRows(int count) {
+		ExcelUtil excelUtil = new ExcelUtil(template());
+		long startTime = System.nanoTime();
+		excelUtil.repeatRows(SHEET_NAME, 6, 8, count, i -> {
+			excelUtil.setVal(SHEET_NAME, 6 + (i * 2), 0, "ユーザー" + i);
+			excelUtil.setVal(SHEET_NAME, 7 + (i * 2), 10, "コメント" + i);
+		});
+		return System.nanoTime() - startTime;
+	}
+
+	private long sheetCopy(int count) {
+		ExcelUtil excelUtil = new ExcelUtil(template());
+		long startTime = System.nanoTime();
+		for (int i = 1; i < count; i++) {
+			excelUtil.sheetCopy(SHEET_NAME, 6, 8, i);
+		}
+		for (int i = 0; i < count; i++) {
+			excelUtil.setVal(SHEET_NAME, 6 + (i * 2), 0, "ユーザー" + i);
+			excelUtil.setVal(SHEET_NAME, 7 + (i * 2), 10, "コメント" + i);
+		}
+		return System.nanoTime() - startTime;
+	}
+
+}
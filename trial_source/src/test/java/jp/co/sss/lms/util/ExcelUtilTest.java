@@ -0,0 +1,130 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * Excelユーティリティの行範囲の複製を試験する。<br>
+ * レポートのフィードバックコメント欄（7～8行目、結合あり）と同じ形の範囲を複製する。<br>
+ *
+ * */
+public class ExcelUtilTest {
+
+	static final String SHEET_NAME = "フィードバックコメント";
+
+	/**
+	 * Case.1_1 行範囲の複製_複数<br>
+	 * <br>
+	 * ■対象メソッド：repeatRows()<br>
+	 * ■試験内容：範囲が指定数分（元の範囲を含む）複製され、各範囲に値が設定され、範囲内の結合状態のみ複製されること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		ExcelUtil excelUtil = new ExcelUtil(template());
+		List<Integer> written = new ArrayList<>();
+
+		excelUtil.repeatRows(SHEET_NAME, 6, 8, 3, i -> {
+			written.add(i);
+			excelUtil.setVal(SHEET_NAME, 6 + (i * 2), 0, "ユーザー" + i);
+			excelUtil.setVal(SHEET_NAME, 7 + (i * 2), 10, "コメント" + i);
+		});
+
+		Sheet sheet = excelUtil.getWb().getSheet(SHEET_NAME);
+		assertEquals(List.of(1, 2, 0), written);
+		for (int i = 0; i < 3; i++) {
+			Row row = sheet.getRow(6 + (i * 2));
+			assertEquals("ユーザー" + i, row.getCell(0).getStringCellValue());
+			assertEquals("日付", row.getCell(17).getStringCellValue());
+			assertEquals((short) 600, row.getHeight());
+			assertEquals("コメント" + i, sheet.getRow(7 + (i * 2)).getCell(10).getStringCellValue());
+			assertEquals(sheet.getRow(6).getCell(0).getCellStyle().getIndex(),
+					row.getCell(0).getCellStyle().getIndex());
+		}
+		// 範囲外の結合1件＋範囲内の結合2件×3範囲
+		assertEquals(7, sheet.getNumMergedRegions());
+		assertEquals("K12:T12", sheet.getMergedRegion(6).formatAsString());
+	}
+
+	/**
+	 * Case.1_2 行範囲の複製_1件・0件<br>
+	 * <br>
+	 * ■対象メソッド：repeatRows()<br>
+	 * ■試験内容：1件の場合は複製せず元の範囲のみに値が設定され、0件の場合は何も行われないこと<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		ExcelUtil excelUtil = new ExcelUtil(template());
+		List<Integer> written = new ArrayList<>();
+
+		excelUtil.repeatRows(SHEET_NAME, 6, 8, 1, written::add);
+		assertEquals(List.of(0), written);
+		assertNull(excelUtil.getWb().getSheet(SHEET_NAME).getRow(8));
+		assertEquals(3, excelUtil.getWb().getSheet(SHEET_NAME).getNumMergedRegions());
+
+		written.clear();
+		excelUtil.repeatRows(SHEET_NAME, 6, 8, 0, written::add);
+		assertTrue(written.isEmpty());
+	}
+
+	/**
+	 * Case.2_1 行範囲の複製_1件・10件・100件<br>
+	 * <br>
+	 * ■対象メソッド：repeatRows()<br>
+	 * ■試験内容：フィードバック1件・10件・100件の場合に、全範囲の値と結合状態が複製されること<br>
+	 * （処理時間の比較は ExcelUtilBenchmarkTest で行う）<br>
+	 */
+	@Test
+	public void testCase2_1() {
+		for (int count : new int[] { 1, 10, 100 }) {
+			ExcelUtil excelUtil = new ExcelUtil(template());
+			excelUtil.repeatRows(SHEET_NAME, 6, 8, count, i -> {
+				excelUtil.setVal(SHEET_NAME, 6 + (i * 2), 0, "ユーザー" + i);
+				excelUtil.setVal(SHEET_NAME, 7 + (i * 2), 10, "コメント" + i);
+			});
+
+			Sheet sheet = excelUtil.getWb().getSheet(SHEET_NAME);
+			assertEquals(1 + (2 * count), sheet.getNumMergedRegions());
+			for (int i = 0; i < count; i++) {
+				assertEquals("ユーザー" + i, sheet.getRow(6 + (i * 2)).getCell(0).getStringCellValue());
+				assertEquals("コメント" + i,
+						sheet.getRow(7 + (i * 2)).getCell(10).getStringCellValue());
+			}
+			assertNull(sheet.getRow(6 + (count * 2)));
+		}
+	}
+
+	/**
+	 * フィードバックコメント欄のテンプレートを作成
+	 *
+	 * @return ワークブック
+	 */
+	static Workbook template() {
+		Workbook wb = new XSSFWorkbook();
+		Sheet sheet = wb.createSheet(SHEET_NAME);
+		CellStyle cellStyle = wb.createCellStyle();
+		cellStyle.setWrapText(true);
+		sheet.createRow(0).createCell(0).setCellValue("フィードバックコメント");
+		sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 19));
+		Row userRow = sheet.createRow(6);
+		userRow.setHeight((short) 600);
+		userRow.createCell(0).setCellStyle(cellStyle);
+		userRow.createCell(17).setCellValue("日付");
+		sheet.addMergedRegion(new CellRangeAddress(6, 6, 0, 9));
+		Row contentRow = sheet.createRow(7);
+		contentRow.createCell(10).setCellStyle(cellStyle);
+		sheet.addMergedRegion(new CellRangeAddress(7, 7, 10, 19));
+		return wb;
+	}
+
+}
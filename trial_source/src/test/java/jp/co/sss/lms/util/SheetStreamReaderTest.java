@@ -0,0 +1,148 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 表形式ファイルの逐次読込ユーティリティの.xlsx読込を試験する。<br>
+ *
+ * */
+public class SheetStreamReaderTest {
+
+	/** シートのXMLのパス */
+	private static final String SHEET_PART = "xl/worksheets/sheet1.xml";
+
+	private File file;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		file = File.createTempFile("sheetStreamReaderTest", ".xlsx");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	/**
+	 * Case.1_1 .xlsx読込_通常のシート<br>
+	 * <br>
+	 * ■対象メソッド：read()<br>
+	 * ■試験内容：先頭シートの値が1行ずつ読み込まれること<br>
+	 */
+	@Test
+	public void testCase1_1() throws IOException {
+		Files.write(file.toPath(), xlsx());
+		List<String> rowList = new ArrayList<>();
+
+		SheetStreamReader.read(file, "attendance.xlsx", StandardCharsets.UTF_8,
+				(rowNum, values) -> rowList.add(rowNum + ":" + String.join(",", values)));
+
+		assertEquals(List.of("1:学生,2024/04/01"), rowList);
+	}
+
+	/**
+	 * Case.1_2 .xlsx読込_DOCTYPEを含むシート<br>
+	 * <br>
+	 * ■対象メソッド：read()<br>
+	 * ■試験内容：シートのXMLにDOCTYPE宣言（外部エンティティ）がある場合、読み込まずに例外となること（XXE対策）<br>
+	 */
+	@Test
+	public void testCase1_2() throws IOException {
+		File secret = File.createTempFile("sheetStreamReaderSecret", ".txt");
+		try {
+			Files.writeString(secret.toPath(), "secret");
+			String doctype = "<!DOCTYPE worksheet [<!ENTITY xxe SYSTEM \""
+					+ secret.toURI() + "\">]>";
+			Files.write(file.toPath(), injectDoctype(xlsx(), doctype));
+			List<String> rowList = new ArrayList<>();
+
+			assertThrows(IOException.class, () -> SheetStreamReader.read(file, "attendance.xlsx",
+					StandardCharsets.UTF_8, (rowNum, values) -> rowList.add(values.toString())));
+			assertTrue(rowList.isEmpty());
+		} finally {
+			Files.deleteIfExists(secret.toPath());
+		}
+	}
+
+	/**
+	 * Case.1_3 シートのXMLパーサー_DOCTYPE<br>
+	 * <br>
+	 * ■対象メソッド：newSheetParser()<br>
+	 * ■試験内容：DOCTYPE宣言を含むXMLは例外となり、含まないXMLは読み込めること<br>
+	 */
+	@Test
+	public void testCase1_3() throws Exception {
+		assertThrows(SAXException.class, () -> SheetStreamReader.newSheetParser().parse(new InputSource(
+				new StringReader("<!DOCTYPE a [<!ENTITY e \"x\">]><a>&e;</a>"))));
+		SheetStreamReader.newSheetParser().parse(new InputSource(new StringReader("<a>x</a>")));
+	}
+
+	/**
+	 * 1行のワークブックを作成
+	 *
+	 * @return .xlsxの内容
+	 * @throws IOException
+	 */
+	private byte[] xlsx() throws IOException {
+		Workbook wb = new XSSFWorkbook();
+		Row row = wb.createSheet("勤怠").createRow(0);
+		row.createCell(0).setCellValue("学生");
+		row.createCell(1).setCellValue("2024/04/01");
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wb.write(baos);
+		return baos.toByteArray();
+	}
+
+	/**
+	 * シートのXML宣言の直後にDOCTYPE宣言を挿入する
+	 *
+	 * @param xlsx
+	 * @param doctype
+	 * @return .xlsxの内容
+	 * @throws IOException
+	 */
+	private byte[] injectDoctype(byte[] xlsx, String doctype) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(xlsx));
+				ZipOutputStream zos = new ZipOutputStream(baos)) {
+			for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry()) {
+				byte[] content = zis.readAllBytes();
+				if (SHEET_PART.equals(entry.getName())) {
+					String xml = new String(content, StandardCharsets.UTF_8);
+					int index = xml.startsWith("<?xml") ? xml.indexOf("?>") + 2 : 0;
+					content = (xml.substring(0, index) + doctype + xml.substring(index))
+							.replace("<sheetData>", "<sheetData>&xxe;")
+							.getBytes(StandardCharsets.UTF_8);
+				}
+				zos.putNextEntry(new ZipEntry(entry.getName()));
+				zos.write(content);
+				zos.closeEntry();
+			}
+		}
+		return baos.toByteArray();
+	}
+
+}
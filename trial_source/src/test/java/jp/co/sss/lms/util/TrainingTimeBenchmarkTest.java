@@ -0,0 +1,171 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+
+/**
+ * 処理時間の計測<br>
+ * 勤怠10万行分の出退勤時刻の変換と遅刻早退判定を、経過分数による判定（parseMinutes＋getStatus(int, int)）と
+ * 従来の時・分（Integer）を保持する方式（split・matches・parseIntによる変換＋compareTo）で比較する。<br>
+ * 通常のテストからは除外している。実行する場合は以下のように指定する。<br>
+ * mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=TrainingTimeBenchmarkTest<br>
+ *
+ * */
+@Tag("benchmark")
+public class TrainingTimeBenchmarkTest {
+
+	/** 勤怠の行数 */
+	private static final int ROW_COUNT = 100_000;
+	/** 計測前に実行する回数（JITコンパイル待ち） */
+	private static final int WARM_UP_COUNT = 20;
+	/** 計測する回数 */
+	private static final int MEASURE_COUNT = 20;
+
+	private final AttendanceUtil attendanceUtil = new AttendanceUtil();
+
+	/**
+	 * 勤怠10万行の遅刻早退判定の時間の計測
+	 */
+	@Test
+	public void benchmarkGetStatus() {
+		String[][] rows = rows();
+		// 両方式の判定結果が一致すること
+		assertEquals(getStatusBoxed(rows), getStatusMinutes(rows));
+
+		for (int i = 0; i < WARM_UP_COUNT; i++) {
+			getStatusBoxed(rows);
+			getStatusMinutes(rows);
+		}
+		long boxedNanos = 0;
+		long minutesNanos = 0;
+		for (int i = 0; i < MEASURE_COUNT; i++) {
+			long startTime = System.nanoTime();
+			getStatusBoxed(rows);
+			boxedNanos += System.nanoTime() - startTime;
+			startTime = System.nanoTime();
+			getStatusMinutes(rows);
+			minutesNanos += System.nanoTime() - startTime;
+		}
+		System.out.println("勤怠" + ROW_COUNT + "行 1行あたり 経過分数="
+				+ minutesNanos / MEASURE_COUNT / ROW_COUNT + "ns 時・分（Integer）="
+				+ boxedNanos / MEASURE_COUNT / ROW_COUNT + "ns");
+	}
+
+	/**
+	 * 経過分数による判定
+	 *
+	 * @param rows
+	 * @return 判定結果のハッシュ（最適化による処理の省略を防ぐ）
+	 */
+	private long getStatusMinutes(String[][] rows) {
+		long hash = 0;
+		for (String[] row : rows) {
+			AttendanceStatusEnum status = attendanceUtil.getStatus(
+					TrainingTime.parseMinutes(row[0]), TrainingTime.parseMinutes(row[1]));
+			hash = hash * 31 + status.ordinal();
+		}
+		return hash;
+	}
+
+	/**
+	 * 従来の方式による判定
+	 *
+	 * @param rows
+	 * @return 判定結果のハッシュ（最適化による処理の省略を防ぐ）
+	 */
+	private long getStatusBoxed(String[][] rows) {
+		BoxedTrainingTime workStartTime = new BoxedTrainingTime("09:00");
+		BoxedTrainingTime workEndTime = new BoxedTrainingTime("18:00");
+		long hash = 0;
+		for (String[] row : rows) {
+			BoxedTrainingTime trainingStartTime = new BoxedTrainingTime(row[0]);
+			BoxedTrainingTime trainingEndTime = new BoxedTrainingTime(row[1]);
+			boolean isLate = trainingStartTime.isNotBlank()
+					&& trainingStartTime.compareTo(workStartTime) > 0;
+			boolean isEarly = trainingEndTime.isNotBlank()
+					&& trainingEndTime.compareTo(workEndTime) < 0;
+			AttendanceStatusEnum status;
+			if (isLate && isEarly) {
+				status = AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY;
+			} else if (isLate) {
+				status = AttendanceStatusEnum.TARDY;
+			} else if (isEarly) {
+				status = AttendanceStatusEnum.LEAVING_EARLY;
+			} else {
+				status = AttendanceStatusEnum.NONE;
+			}
+			hash = hash * 31 + status.ordinal();
+		}
+		return hash;
+	}
+
+	/**
+	 * 勤怠データの作成（出勤8:30～9:29、退勤17:30～18:29、一部未入力・"0900"形式）
+	 *
+	 * @return 出勤時刻・退勤時刻の配列
+	 */
+	private String[][] rows() {
+		Random random = new Random(0);
+		String[][] rows = new String[ROW_COUNT][];
+		for (int i = 0; i < ROW_COUNT; i++) {
+			int start = 8 * 60 + 30 + random.nextInt(60);
+			int end = 17 * 60 + 30 + random.nextInt(60);
+			rows[i] = new String[] { format(start, i % 10 == 0),
+					(i % 20 == 0) ? "" : format(end, false) };
+		}
+		return rows;
+	}
+
+	private String format(int minutes, boolean digitsOnly) {
+		return digitsOnly ? String.format("%02d%02d", minutes / 60, minutes % 60)
+				: (minutes / 60) + ":" + String.format("%02d", minutes % 60);
+	}
+
+	/**
+	 * 従来の研修時刻（時・分をIntegerで保持し、split・matches・parseIntで変換する）
+	 */
+	private static class BoxedTrainingTime {
+
+		private Integer hour;
+		private Integer minute;
+
+		BoxedTrainingTime(String timeStr) {
+			if (timeStr == null || timeStr.isEmpty()) {
+				return;
+			}
+			if (timeStr.indexOf(":") >= 0) {
+				String[] times = timeStr.split(":");
+				if (times.length != 2 || !times[0].matches("[0-9]+")
+						|| !times[1].matches("[0-9]+")) {
+					throw new IllegalArgumentException(timeStr + " is Illegal.");
+				}
+				hour = Integer.parseInt(times[0]);
+				minute = Integer.parseInt(times[1]);
+			} else if (timeStr.matches("[0-9]{4}")) {
+				hour = Integer.parseInt(timeStr.substring(0, 2));
+				minute = Integer.parseInt(timeStr.substring(2, 4));
+			} else {
+				throw new IllegalArgumentException(timeStr + " is Illegal.");
+			}
+		}
+
+		boolean isNotBlank() {
+			return hour != null && minute != null;
+		}
+
+		int compareTo(BoxedTrainingTime another) {
+			if (!this.hour.equals(another.hour)) {
+				return this.hour.compareTo(another.hour);
+			}
+			return this.minute.compareTo(another.minute);
+		}
+
+	}
+
+}
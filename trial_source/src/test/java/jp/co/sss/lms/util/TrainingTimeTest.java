@@ -0,0 +1,127 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+
+/**
+ * JUnitによる機能試験(ホワイトボックステスト)<br>
+ * 研修時刻ユーティリティの変換・比較処理を試験する。<br>
+ * 
+ * */
+public class TrainingTimeTest {
+
+	/**
+	 * Case.1_1 文字列からの変換_有効フォーマット<br>
+	 * <br>
+	 * ■対象メソッド：parseMinutes()<br>
+	 * ■試験内容："9:00", "18:00", "0900", "1800", 空文字が経過分数に変換されること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		assertEquals(540, TrainingTime.parseMinutes("9:00"));
+		assertEquals(1080, TrainingTime.parseMinutes("18:00"));
+		assertEquals(540, TrainingTime.parseMinutes("0900"));
+		assertEquals(1080, TrainingTime.parseMinutes("1800"));
+		assertEquals(545, TrainingTime.parseMinutes("9:5"));
+		assertEquals(TrainingTime.BLANK, TrainingTime.parseMinutes(""));
+		assertEquals(TrainingTime.BLANK, TrainingTime.parseMinutes(null));
+	}
+
+	/**
+	 * Case.1_2 文字列からの変換_無効フォーマット<br>
+	 * <br>
+	 * ■対象メソッド：parseMinutes(), isValidTrainingTime()<br>
+	 * ■試験内容：無効な文字列は例外となり、isValidTrainingTimeがfalseを返却すること<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		TrainingTime trainingTime = new TrainingTime("09:00");
+		for (String timeStr : new String[] { "9:", ":30", "9:00:00", "9:60", "900", "09a0", "a:00",
+				"99999999999:00" }) {
+			assertThrows(IllegalArgumentException.class, () -> TrainingTime.parseMinutes(timeStr),
+					timeStr);
+			assertFalse(trainingTime.isValidTrainingTime(timeStr), timeStr);
+		}
+	}
+
+	/**
+	 * Case.2_1 HH:mm形式への変換<br>
+	 * <br>
+	 * ■対象メソッド：formatMinutes(), toString()<br>
+	 * ■試験内容：zero paddingされたHH:mm形式で返却されること<br>
+	 */
+	@Test
+	public void testCase2_1() {
+		assertEquals("09:05", TrainingTime.formatMinutes(545));
+		assertEquals("00:00", TrainingTime.formatMinutes(0));
+		assertEquals("25:30", TrainingTime.formatMinutes(1530));
+		assertEquals("", TrainingTime.formatMinutes(TrainingTime.BLANK));
+		assertEquals("09:00", new TrainingTime(9, 0).toString());
+		assertEquals("", new TrainingTime("").toString());
+	}
+
+	/**
+	 * Case.3_1 比較・加減算<br>
+	 * <br>
+	 * ■対象メソッド：compareTo(), add(), subtract()<br>
+	 * ■試験内容：未設定は設定済みより小さく、加減算が経過分数で行われること<br>
+	 */
+	@Test
+	public void testCase3_1() {
+		TrainingTime blank = new TrainingTime("");
+		TrainingTime nine = new TrainingTime("09:00");
+		TrainingTime ten = new TrainingTime("10:30");
+		assertTrue(blank.compareTo(nine) < 0);
+		assertTrue(nine.compareTo(blank) > 0);
+		assertEquals(0, blank.compareTo(null));
+		assertTrue(nine.compareTo(ten) < 0);
+		assertEquals(new TrainingTime("19:30"), nine.add(ten));
+		assertEquals(new TrainingTime("01:30"), ten.subtract(nine));
+		assertEquals(new TrainingTime("00:00"), blank.subtract(new TrainingTime("")));
+		assertEquals(new TrainingTime("09:15"), new TrainingTime("09:01").roundUp());
+		assertEquals(new TrainingTime("09:45"), new TrainingTime("09:59").roundDown());
+	}
+
+	/**
+	 * Case.4_1 遅刻早退判定<br>
+	 * <br>
+	 * ■対象メソッド：AttendanceUtil#getStatus()<br>
+	 * ■試験内容：経過分数による判定が研修時刻による判定と一致すること<br>
+	 */
+	@Test
+	public void testCase4_1() {
+		AttendanceUtil attendanceUtil = new AttendanceUtil();
+		assertEquals(AttendanceStatusEnum.NONE, attendanceUtil.getStatus(
+				new TrainingTime("09:00"), new TrainingTime("18:00")));
+		assertEquals(AttendanceStatusEnum.TARDY, attendanceUtil.getStatus(
+				new TrainingTime("09:01"), null));
+		assertEquals(AttendanceStatusEnum.LEAVING_EARLY, attendanceUtil.getStatus(
+				TrainingTime.BLANK, TrainingTime.parseMinutes("17:59")));
+		assertEquals(AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY, attendanceUtil.getStatus(
+				TrainingTime.parseMinutes("10:00"), TrainingTime.parseMinutes("17:00")));
+	}
+
+	/**
+	 * Case.5_1 企業の休憩取得時間を考慮<br>
+	 * <br>
+	 * ■対象メソッド：restTimeZone()<br>
+	 * ■試験内容：企業規定の休憩時間が1時間を超える分のみ差し引かれ、結果が0未満とならないこと<br>
+	 */
+	@Test
+	public void testCase5_1() {
+		int restStart = TrainingTime.parseMinutes("12:00");
+		// 休憩1時間：差し引かない
+		assertEquals(420, TrainingTime.restTimeZone(420, restStart, TrainingTime.parseMinutes("13:00")));
+		// 休憩1時間30分：30分を差し引く（9時間以上の場合も分単位で算出）
+		assertEquals(390, TrainingTime.restTimeZone(420, restStart, TrainingTime.parseMinutes("13:30")));
+		assertEquals(570, TrainingTime.restTimeZone(600, restStart, TrainingTime.parseMinutes("13:30")));
+		// 超過分の方が大きい場合は0
+		assertEquals(0, TrainingTime.restTimeZone(20, restStart, TrainingTime.parseMinutes("13:30")));
+		// 休憩時刻が未設定の場合は差し引かない
+		assertEquals(420, TrainingTime.restTimeZone(420, TrainingTime.BLANK, TrainingTime.BLANK));
+	}
+
+}